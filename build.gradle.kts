@@ -9,12 +9,55 @@ repositories {
     mavenCentral()
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Runs all benchmarks in src/jmh. Extra JMH options can be passed with -PjmhArgs="...",
+// e.g. -PjmhArgs="PathFinderBenchmark -p size=1001".
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with throughput, average time and the GC profiler."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { resultFile.get().asFile.parentFile.mkdirs() }
+
+    args("-bm", "thrpt,avgt", "-prof", "gc", "-rf", "json", "-rff", resultFile.get().asFile.path)
+    providers.gradleProperty("jmhArgs").orNull?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
+
+tasks.jar {
+    manifest { attributes("Main-Class" to "de.eisner.maze.App") }
+}
+
+// Records the classes loaded by a small generate/solve/save batch into an AppCDS archive next to the jar.
+// Start with: java -XX:SharedArchiveFile=build/libs/maze.jsa -jar build/libs/maze-runner-with-java-1.0-SNAPSHOT.jar ...
+tasks.register<JavaExec>("cdsArchive") {
+    group = "build"
+    description = "Creates an AppCDS archive that shortens the startup of headless commands."
+    dependsOn(tasks.jar)
+    classpath = files(tasks.jar)
+
+    val archive = layout.buildDirectory.file("libs/maze.jsa")
+    val samples = layout.buildDirectory.dir("tmp/cds")
+    outputs.file(archive)
+
+    jvmArgs("-XX:ArchiveClassesAtExit=" + archive.get().asFile.path, "-Xlog:cds=off")
+    args("batch", "8", "21", "101", samples.get().asFile.path, "--ext", ".mzb", "--seed", "1")
+}
@@ -0,0 +1,19 @@
+package de.eisner.maze.benchmark;
+
+import de.eisner.maze.logic.MazeGenerator;
+import de.eisner.maze.model.Maze;
+
+/**
+ * Shared fixtures for the benchmarks.
+ * All mazes are generated from a fixed seed so that every run measures the same input.
+ */
+final class BenchmarkMazes {
+    static final long SEED = 20240601L;
+
+    private BenchmarkMazes() {
+    }
+
+    static Maze generate(int size) {
+        return new MazeGenerator().generate(size, size, SEED);
+    }
+}
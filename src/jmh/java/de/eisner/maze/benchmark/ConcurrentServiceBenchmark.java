@@ -0,0 +1,75 @@
+package de.eisner.maze.benchmark;
+
+import de.eisner.maze.logic.service.MazeService;
+import de.eisner.maze.logic.service.MazeServiceImpl;
+import de.eisner.maze.logic.service.SessionState;
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.MazeSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress test of one shared {@link MazeService} under many threads: random moves across thousands of
+ * player sessions, and generate-and-solve round trips that share the generator and the solution cache.
+ * Runs on all cores by default; compare the throughput against a single thread to see how it scales,
+ * e.g. {@code -PjmhArgs="ConcurrentServiceBenchmark -t 1"} and {@code -t 8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class ConcurrentServiceBenchmark {
+
+    @Param({"4096"})
+    private int sessions;
+
+    @Param({"101"})
+    private int size;
+
+    private final MazeService service = new MazeServiceImpl();
+    private long[] sessionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Maze maze = MazeSnapshot.of(BenchmarkMazes.generate(size));
+        sessionIds = new long[sessions];
+        for (int i = 0; i < sessions; i++) {
+            sessionIds[i] = service.openSession(maze).orElseThrow().id();
+        }
+    }
+
+    /**
+     * Per-thread random source, so picking sessions and directions does not contend.
+     */
+    @State(Scope.Thread)
+    public static class Player {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public Optional<SessionState> move(Player player) {
+        long id = sessionIds[player.random.nextInt(sessionIds.length)];
+        return switch (player.random.nextInt(4)) {
+            case 0 -> service.move(id, -1, 0);
+            case 1 -> service.move(id, 1, 0);
+            case 2 -> service.move(id, 0, -1);
+            default -> service.move(id, 0, 1);
+        };
+    }
+
+    /**
+     * Seeds repeat, so part of the solves are answered by the shared cache.
+     */
+    @Benchmark
+    public Optional<Maze> generateAndSolve(Player player) {
+        Maze maze = service.generateMaze(51, 51, player.random.nextInt(256)).orElseThrow();
+        return service.findPath(maze, SolverStrategy.BFS);
+    }
+}
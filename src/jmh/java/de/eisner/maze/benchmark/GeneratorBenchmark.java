@@ -0,0 +1,49 @@
+package de.eisner.maze.benchmark;
+
+import de.eisner.maze.logic.GenerationOptions;
+import de.eisner.maze.logic.MazeGenerator;
+import de.eisner.maze.logic.generator.Carver;
+import de.eisner.maze.model.Maze;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MazeGenerator#generate(int, int, GenerationOptions)} for every carving algorithm
+ * across a sweep of square maze sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"11", "101", "1001", "4001"})
+    private int size;
+
+    @Param({"PRIM", "RECURSIVE_BACKTRACKER", "WILSON", "BINARY_TREE", "SIDEWINDER", "ELLER"})
+    private String algorithm;
+
+    private final MazeGenerator generator = new MazeGenerator();
+    private GenerationOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Carver carver = switch (algorithm) {
+            case "RECURSIVE_BACKTRACKER" -> Carver.RECURSIVE_BACKTRACKER;
+            case "WILSON" -> Carver.WILSON;
+            case "BINARY_TREE" -> Carver.BINARY_TREE;
+            case "SIDEWINDER" -> Carver.SIDEWINDER;
+            case "ELLER" -> Carver.ELLER;
+            default -> Carver.PRIM;
+        };
+        options = GenerationOptions.seeded(BenchmarkMazes.SEED).withAlgorithm(carver);
+    }
+
+    @Benchmark
+    public Maze generate() {
+        return generator.generate(size, size, options);
+    }
+}
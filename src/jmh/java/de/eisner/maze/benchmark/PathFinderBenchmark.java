@@ -0,0 +1,62 @@
+package de.eisner.maze.benchmark;
+
+import de.eisner.maze.logic.PathFinder;
+import de.eisner.maze.logic.solver.SearchStats;
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.Point;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PathFinder#findPath(Maze, SolverStrategy)} for every solver strategy
+ * across a sweep of square maze sizes. {@link #findPathWithStats()} runs the same search while counting
+ * its effort, which should cost no measurable time compared to {@link #findPath()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathFinderBenchmark {
+
+    @Param({"11", "101", "1001", "4001"})
+    private int size;
+
+    @Param({"BFS", "BIDIRECTIONAL_BFS", "A_STAR", "CORRIDOR_GRAPH"})
+    private String strategy;
+
+    private final PathFinder pathFinder = new PathFinder();
+    private SolverStrategy solver;
+    private Maze maze;
+    private Point from;
+    private Point to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = BenchmarkMazes.generate(size);
+        solver = switch (strategy) {
+            case "BIDIRECTIONAL_BFS" -> SolverStrategy.BIDIRECTIONAL_BFS;
+            case "A_STAR" -> SolverStrategy.A_STAR;
+            case "CORRIDOR_GRAPH" -> SolverStrategy.CORRIDOR_GRAPH;
+            default -> SolverStrategy.BFS;
+        };
+        List<Point> exits = pathFinder.getAllExits(maze);
+        from = exits.getFirst();
+        to = exits.getLast();
+    }
+
+    @Benchmark
+    public Optional<Maze> findPath() {
+        return pathFinder.findPath(maze, solver);
+    }
+
+    @Benchmark
+    public Optional<Maze> findPathWithStats() {
+        return pathFinder.findPath(maze, from, to, solver, new SearchStats());
+    }
+}
@@ -0,0 +1,63 @@
+package de.eisner.maze.benchmark;
+
+import de.eisner.maze.logic.io.MazeRepository;
+import de.eisner.maze.logic.io.MazeRepositoryImpl;
+import de.eisner.maze.model.Maze;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and saving mazes through {@link MazeRepositoryImpl} across a sweep of square maze sizes,
+ * once in the text format and once in the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"11", "101", "1001", "4001"})
+    private int size;
+
+    @Param({".txt", ".mzb", ".mzc", ".txt.gz"})
+    private String extension;
+
+    private final MazeRepository repository = new MazeRepositoryImpl();
+    private Maze maze;
+    private Path directory;
+    private Path source;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        maze = BenchmarkMazes.generate(size);
+        directory = Files.createTempDirectory("maze-bench");
+        source = directory.resolve("source" + extension);
+        target = directory.resolve("target" + extension);
+        repository.save(source.toString(), maze);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Optional<Maze> load() throws IOException {
+        return repository.load(source.toString());
+    }
+
+    @Benchmark
+    public boolean save() {
+        return repository.save(target.toString(), maze);
+    }
+}
@@ -1,10 +1,18 @@
 package de.eisner.maze;
 
+import de.eisner.maze.cli.CommandLine;
 import de.eisner.maze.ui.MazeManager;
 
 public class App {
 
+    /**
+     * Starts the interactive menu, or runs a single headless command if arguments are given.
+     */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(new CommandLine().run(args));
+        }
+
         MazeManager manager = new MazeManager();
         manager.run();
     }
@@ -0,0 +1,71 @@
+package de.eisner.maze.cli;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits command line arguments into positional values and {@code --name value} options.
+ * An option directly followed by another option or the end of the arguments is a flag.
+ */
+class Arguments {
+    private final List<String> positional = new ArrayList<>();
+    private final Map<String, String> options = new HashMap<>();
+
+    Arguments(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                String name = args[i].substring(2);
+                boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+                options.put(name, hasValue ? args[++i] : "true");
+            } else {
+                positional.add(args[i]);
+            }
+        }
+    }
+
+    String positional(int index, String name) {
+        if (index >= positional.size()) {
+            throw new IllegalArgumentException("Missing argument <" + name + ">");
+        }
+        return positional.get(index);
+    }
+
+    int positionalInt(int index, String name) {
+        return parseInt(positional(index, name), name);
+    }
+
+    String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    int optionInt(String name, int fallback) {
+        String value = options.get(name);
+        return value == null ? fallback : parseInt(value, name);
+    }
+
+    Long optionLong(String name) {
+        String value = options.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number: " + value);
+        }
+    }
+
+    boolean flag(String name) {
+        return Boolean.parseBoolean(options.get(name));
+    }
+
+    private int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package de.eisner.maze.cli;
+
+import de.eisner.maze.logic.GenerationOptions;
+import de.eisner.maze.logic.batch.BatchPipeline;
+import de.eisner.maze.logic.batch.BatchReport;
+import de.eisner.maze.logic.batch.BatchRequest;
+import de.eisner.maze.logic.batch.QueueStats;
+import de.eisner.maze.logic.generator.Carver;
+import de.eisner.maze.logic.service.MazeService;
+import de.eisner.maze.logic.service.MazeServiceImpl;
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.server.MazeServer;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Headless entry point for scripts. Every command prints exactly one JSON line with its results and timings
+ * to standard output; errors are printed as {@code {"error": ...}} to standard error.
+ * Exit codes: 0 on success, 1 if the command failed (e.g. no path or unreadable file), 2 on a usage error.
+ */
+public class CommandLine {
+    public static final int OK = 0;
+    public static final int FAILED = 1;
+    public static final int USAGE = 2;
+
+    private static final String HELP = """
+            Usage: maze <command> [arguments]
+              generate <rows> <cols> [--seed N] [--parallel] [--out FILE]
+                       [--algorithm prim|backtracker|wilson|binary-tree|sidewinder|eller]
+              generate <rows> <cols> --stream --out FILE [--seed N]   (Eller, row by row, any size)
+              solve <file> [--strategy bfs|bidirectional|astar|corridor] [--out FILE]
+              convert <source> <target>
+              stats <file>
+              batch <count> <minSize> <maxSize> <directory> [--ext .txt|.mzb] [--seed N] [--threads N]
+              serve [--port N] [--dir DIRECTORY]   (HTTP on loopback until stopped)
+            Files ending in .mzb use the binary format, .mzc the compressed binary format, .gz gzip compressed text
+            and all others the text format. Loading detects the format from the file content.""";
+
+    private final MazeService service;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public CommandLine() {
+        this(new MazeServiceImpl(), System.out, System.err);
+    }
+
+    public CommandLine(MazeService service, PrintStream out, PrintStream err) {
+        this.service = service;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Runs one command.
+     * @param args The command name followed by its arguments.
+     * @return The exit code.
+     */
+    public int run(String[] args) {
+        if (args.length == 0 || "help".equals(args[0]) || "--help".equals(args[0])) {
+            out.println(HELP);
+            return args.length == 0 ? USAGE : OK;
+        }
+
+        Arguments arguments = new Arguments(args, 1);
+        try {
+            return switch (args[0]) {
+                case "generate" -> generate(arguments);
+                case "solve" -> solve(arguments);
+                case "convert" -> convert(arguments);
+                case "stats" -> stats(arguments);
+                case "batch" -> batch(arguments);
+                case "serve" -> serve(arguments);
+                default -> usage("Unknown command: " + args[0]);
+            };
+        } catch (IllegalArgumentException e) {
+            return usage(e.getMessage());
+        } catch (FileNotFoundException e) {
+            return fail(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            return fail(e.getMessage() == null ? e.toString() : e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fail("Interrupted");
+        }
+    }
+
+    private int generate(Arguments arguments) {
+        int rows = arguments.positionalInt(0, "rows");
+        int cols = arguments.positionalInt(1, "cols");
+        Long seed = arguments.optionLong("seed");
+        GenerationOptions options = (seed == null ? GenerationOptions.random() : GenerationOptions.seeded(seed))
+                .withParallel(arguments.flag("parallel"))
+                .withAlgorithm(algorithm(arguments.option("algorithm", "prim")));
+
+        if (arguments.flag("stream")) {
+            return generateToFile(rows, cols, options.seed(), arguments.option("out", null));
+        }
+
+        long start = System.nanoTime();
+        Optional<Maze> generated = service.generateMaze(rows, cols, options);
+        long generateNanos = System.nanoTime() - start;
+        if (generated.isEmpty()) {
+            return fail("Could not generate a " + rows + "x" + cols + " maze");
+        }
+
+        Maze maze = generated.get();
+        JsonLine json = new JsonLine()
+                .put("command", "generate")
+                .put("rows", maze.rows())
+                .put("cols", maze.cols())
+                .put("seed", options.seed())
+                .put("algorithm", arguments.option("algorithm", "prim"))
+                .put("contentHash", maze.contentHash())
+                .millis("generateMillis", generateNanos);
+        String target = arguments.option("out", null);
+        if (target != null) {
+            json.put("file", target).millis("saveMillis", timedSave(target, maze));
+        }
+        out.println(json);
+        return OK;
+    }
+
+    private int generateToFile(int rows, int cols, long seed, String target) {
+        if (target == null) {
+            throw new IllegalArgumentException("--stream needs --out FILE");
+        }
+
+        long start = System.nanoTime();
+        service.generateToFile(target, rows, cols, seed);
+        out.println(new JsonLine()
+                .put("command", "generate")
+                .put("rows", rows)
+                .put("cols", cols)
+                .put("seed", seed)
+                .put("algorithm", "eller")
+                .put("file", target)
+                .put("streamed", true)
+                .millis("generateMillis", System.nanoTime() - start));
+        return OK;
+    }
+
+    private int solve(Arguments arguments) throws FileNotFoundException {
+        String source = arguments.positional(0, "file");
+        String strategyName = arguments.option("strategy", "bfs");
+        SolverStrategy strategy = strategy(strategyName);
+
+        long start = System.nanoTime();
+        Maze maze = load(source);
+        long loadNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Optional<Maze> solved = service.findPath(maze, strategy);
+        long solveNanos = System.nanoTime() - start;
+
+        JsonLine json = new JsonLine()
+                .put("command", "solve")
+                .put("file", source)
+                .put("strategy", strategyName)
+                .put("rows", maze.rows())
+                .put("cols", maze.cols())
+                .put("found", solved.isPresent())
+                .put("pathLength", solved.map(CommandLine::pathLength).orElse(0L))
+                .millis("loadMillis", loadNanos)
+                .millis("solveMillis", solveNanos);
+        String target = arguments.option("out", null);
+        if (target != null && solved.isPresent()) {
+            json.put("out", target).millis("saveMillis", timedSave(target, solved.get()));
+        }
+        out.println(json);
+        return solved.isPresent() ? OK : FAILED;
+    }
+
+    private int convert(Arguments arguments) throws FileNotFoundException {
+        String source = arguments.positional(0, "source");
+        String target = arguments.positional(1, "target");
+
+        long start = System.nanoTime();
+        Maze maze = load(source);
+        long loadNanos = System.nanoTime() - start;
+
+        out.println(new JsonLine()
+                .put("command", "convert")
+                .put("source", source)
+                .put("target", target)
+                .put("rows", maze.rows())
+                .put("cols", maze.cols())
+                .millis("loadMillis", loadNanos)
+                .millis("saveMillis", timedSave(target, maze)));
+        return OK;
+    }
+
+    private int stats(Arguments arguments) throws FileNotFoundException {
+        String source = arguments.positional(0, "file");
+
+        long start = System.nanoTime();
+        Maze maze = load(source);
+        long loadNanos = System.nanoTime() - start;
+
+        long walls = 0;
+        long path = 0;
+        for (int r = 0; r < maze.rows(); r++) {
+            for (int c = 0; c < maze.cols(); c++) {
+                int tile = maze.get(r, c);
+                if (tile == 1) walls++;
+                else if (tile == 2) path++;
+            }
+        }
+
+        out.println(new JsonLine()
+                .put("command", "stats")
+                .put("file", source)
+                .put("rows", maze.rows())
+                .put("cols", maze.cols())
+                .put("walls", walls)
+                .put("passages", (long) maze.rows() * maze.cols() - walls)
+                .put("pathTiles", path)
+                .put("exits", service.getExits(maze).size())
+                .put("contentHash", maze.contentHash())
+                .millis("loadMillis", loadNanos));
+        return OK;
+    }
+
+    private int batch(Arguments arguments) throws IOException, InterruptedException {
+        int count = arguments.positionalInt(0, "count");
+        int minSize = arguments.positionalInt(1, "minSize");
+        int maxSize = arguments.positionalInt(2, "maxSize");
+        Path directory = Path.of(arguments.positional(3, "directory"));
+        String extension = arguments.option("ext", ".txt");
+        Long seed = arguments.optionLong("seed");
+        int threads = arguments.optionInt("threads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        BatchRequest request = new BatchRequest(count, minSize, maxSize, minSize, maxSize,
+                seed == null ? 0 : seed, directory, extension, threads, 64);
+        BatchReport report = new BatchPipeline().run(request);
+
+        JsonLine json = new JsonLine()
+                .put("command", "batch")
+                .put("generated", report.generated())
+                .put("solved", report.solved())
+                .put("saved", report.saved())
+                .put("failed", report.failed())
+                .millis("elapsedMillis", report.elapsed().toNanos())
+                .putDecimal("mazesPerSecond", report.mazesPerSecond());
+        queueStats(json, "toSolve", report.toSolve());
+        queueStats(json, "toSave", report.toSave());
+        out.println(json);
+        return report.failed() == 0 ? OK : FAILED;
+    }
+
+    /**
+     * Prints the address once the server listens and then blocks until the process is stopped.
+     */
+    private int serve(Arguments arguments) throws IOException, InterruptedException {
+        int port = arguments.optionInt("port", 8080);
+        String directory = arguments.option("dir", null);
+
+        MazeServer server = new MazeServer(service, directory == null ? null : Path.of(directory));
+        InetSocketAddress address = server.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        out.println(new JsonLine()
+                .put("command", "serve")
+                .put("url", "http://" + address.getHostString() + ":" + address.getPort() + "/sessions"));
+        server.awaitStop();
+        return OK;
+    }
+
+    private void queueStats(JsonLine json, String queue, QueueStats stats) {
+        json.put(queue + "BlockedPuts", stats.blockedPuts())
+                .put(queue + "BlockedMillis", stats.blockedMillis())
+                .put(queue + "PeakSize", stats.peakSize());
+    }
+
+    private Maze load(String source) throws FileNotFoundException {
+        return service.load(source)
+                .orElseThrow(() -> new IllegalStateException("Could not load the maze from " + source));
+    }
+
+    private long timedSave(String target, Maze maze) {
+        long start = System.nanoTime();
+        service.save(target, maze);
+        return System.nanoTime() - start;
+    }
+
+    private static long pathLength(Maze maze) {
+        long length = 0;
+        for (int r = 0; r < maze.rows(); r++) {
+            for (int c = 0; c < maze.cols(); c++) {
+                if (maze.get(r, c) == 2) length++;
+            }
+        }
+        return length;
+    }
+
+    private static SolverStrategy strategy(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "bfs" -> SolverStrategy.BFS;
+            case "bidirectional" -> SolverStrategy.BIDIRECTIONAL_BFS;
+            case "astar" -> SolverStrategy.A_STAR;
+            case "corridor" -> SolverStrategy.CORRIDOR_GRAPH;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    private static Carver algorithm(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "prim" -> Carver.PRIM;
+            case "backtracker" -> Carver.RECURSIVE_BACKTRACKER;
+            case "wilson" -> Carver.WILSON;
+            case "binary-tree" -> Carver.BINARY_TREE;
+            case "sidewinder" -> Carver.SIDEWINDER;
+            case "eller" -> Carver.ELLER;
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + name);
+        };
+    }
+
+    private int usage(String message) {
+        err.println(new JsonLine().put("error", message));
+        err.println(HELP);
+        return USAGE;
+    }
+
+    private int fail(String message) {
+        err.println(new JsonLine().put("error", message));
+        return FAILED;
+    }
+}
@@ -0,0 +1,78 @@
+package de.eisner.maze.cli;
+
+import java.util.Locale;
+
+/**
+ * Builds a single-line JSON object, the output format of every headless command.
+ */
+class JsonLine {
+    private final StringBuilder json = new StringBuilder("{");
+
+    JsonLine put(String key, String value) {
+        key(key);
+        quote(value);
+        return this;
+    }
+
+    JsonLine put(String key, long value) {
+        key(key);
+        json.append(value);
+        return this;
+    }
+
+    JsonLine put(String key, boolean value) {
+        key(key);
+        json.append(value);
+        return this;
+    }
+
+    /**
+     * Adds a duration measured with {@link System#nanoTime()} in milliseconds with three decimals.
+     */
+    JsonLine millis(String key, long nanos) {
+        key(key);
+        json.append(nanos / 1_000_000).append('.').append(String.format(Locale.ROOT, "%03d", nanos / 1_000 % 1_000));
+        return this;
+    }
+
+    JsonLine putDecimal(String key, double value) {
+        key(key);
+        json.append(String.format(Locale.ROOT, "%.3f", value));
+        return this;
+    }
+
+    private void key(String key) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        quote(key);
+        json.append(':');
+    }
+
+    private void quote(String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return json + "}";
+    }
+}
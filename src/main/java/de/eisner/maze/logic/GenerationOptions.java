@@ -0,0 +1,37 @@
+package de.eisner.maze.logic;
+
+import de.eisner.maze.logic.generator.Carver;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Options controlling how {@link MazeGenerator} builds a maze.
+ * @param seed Seed for the random source; equal options and dimensions produce equal mazes.
+ * @param parallel true to carve the maze as independent tiles on all available cores.
+ *                 Meant for very large grids; the result is still a perfect maze.
+ * @param algorithm The algorithm carving the maze (or every tile of it), e.g. {@link Carver#PRIM}.
+ */
+public record GenerationOptions(long seed, boolean parallel, Carver algorithm) {
+
+    /**
+     * @return Sequential generation with Prim's algorithm and a fresh random seed.
+     */
+    public static GenerationOptions random() {
+        return seeded(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @return Sequential generation with Prim's algorithm and the given seed.
+     */
+    public static GenerationOptions seeded(long seed) {
+        return new GenerationOptions(seed, false, Carver.PRIM);
+    }
+
+    public GenerationOptions withParallel(boolean parallel) {
+        return new GenerationOptions(seed, parallel, algorithm);
+    }
+
+    public GenerationOptions withAlgorithm(Carver algorithm) {
+        return new GenerationOptions(seed, parallel, algorithm);
+    }
+}
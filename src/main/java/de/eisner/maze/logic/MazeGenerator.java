@@ -1,103 +1,204 @@
 package de.eisner.maze.logic;
 
-import de.eisner.maze.model.Tile;
+import de.eisner.maze.logic.generator.Carver;
+import de.eisner.maze.logic.generator.Region;
+import de.eisner.maze.model.BitMaze;
 import de.eisner.maze.model.Maze;
 import de.eisner.maze.model.Point;
+import de.eisner.maze.model.RowSink;
+import de.eisner.maze.model.RowSource;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 /**
  * Core logic for creating randomized mazes.
- * Uses a modified Prim's algorithm based on a grid of cells and walls.
+ * The cells of the grid are carved by a {@link Carver}, a modified Prim's algorithm unless the options select another.
  * Ensures the maze has distinct entry and exit points with a minimum distance.
  */
 public class MazeGenerator {
-    private final Random random = new Random();
+    /** Edge length of a tile in cells when generating in parallel. */
+    private static final int TILE_CELLS = 256;
 
     /**
-     * Generates a randomized maze.
+     * Generates a randomized maze from a random seed.
      * @param rows Height of the grid.
      * @param cols Width of the grid.
      * @return A newly constructed Maze object.
      */
     public Maze generate(int rows, int cols) {
-        int[][] newGrid = initGrid(rows, cols);
-        initMaze(newGrid);
+        return generate(rows, cols, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Generates a reproducible maze. The same seed and dimensions always produce the same maze.
+     * The generator keeps no state between calls, so it can be shared between threads.
+     * @param rows Height of the grid.
+     * @param cols Width of the grid.
+     * @param seed Seed for the random source.
+     * @return A newly constructed Maze object.
+     */
+    public Maze generate(int rows, int cols, long seed) {
+        return generate(rows, cols, GenerationOptions.seeded(seed));
+    }
+
+    /**
+     * Generates a maze with the given options.
+     * @param rows Height of the grid.
+     * @param cols Width of the grid.
+     * @param options Seed, algorithm and generation mode.
+     * @return A newly constructed Maze object.
+     */
+    public Maze generate(int rows, int cols, GenerationOptions options) {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        BitMaze newGrid = BitMaze.ofWalls(rows, cols);
+        Region whole = new Region(1, 1 + 2 * ((rows - 1) / 2 - 1), 1, 1 + 2 * ((cols - 1) / 2 - 1));
+
+        if (options.parallel()) {
+            carveTiled(newGrid, whole, options.algorithm(), random);
+        } else {
+            options.algorithm().carve(newGrid, whole, random, false);
+        }
         stretchMazeIfEven(newGrid);
-        addEntryAndExitPoints(newGrid);
+        addEntryAndExitPoints(newGrid, random);
 
-        return new Maze(newGrid);
+        return newGrid;
     }
 
-    private int[][] initGrid(int rows, int cols) {
-        int[][] m = new int[rows][cols];
-        Arrays.setAll(m, i -> {
-            int[] row = new int[cols];
-            Arrays.fill(row, 1);
-            return row;
-        });
-        return m;
+    /**
+     * Generates a reproducible maze with Eller's algorithm and hands it to the sink row by row.
+     * Only a few rows of memory are used, so the maze may be far larger than the heap.
+     * @param rows Height of the grid.
+     * @param cols Width of the grid.
+     * @param seed Seed for the random source.
+     * @param sink Receives the grid rows from top to bottom.
+     * @throws IOException If the sink fails.
+     */
+    public void stream(int rows, int cols, long seed, RowSink sink) throws IOException {
+        Carver.ELLER.stream(rows, cols, new SplittableRandom(seed), sink);
     }
 
-    private void initMaze(int[][] grid) {
-        List<Tile> neighbors = new ArrayList<>();
-        // initial cell
-        int row = 1 + 2 * random.nextInt((grid.length - 1) / 2);
-        int col = 1 + 2 * random.nextInt((grid[0].length - 1) / 2);
-        grid[row][col] = 0;
-        addNeighbors(row, col, grid, neighbors);
-
-        // further cells
-        while (!neighbors.isEmpty()) {
-            int rIndex = random.nextInt(neighbors.size());
-            Tile cell = neighbors.remove(rIndex);
-
-            if (grid[cell.next().row()][cell.next().col()] == 1) {
-                grid[cell.path().row()][cell.path().col()] = 0;
-                grid[cell.next().row()][cell.next().col()] = 0;
-                addNeighbors(cell.next().row(), cell.next().col(), grid, neighbors);
+    /**
+     * Describes a maze that is only generated when its rows are requested, e.g. by a streaming writer.
+     * @param rows Height of the grid.
+     * @param cols Width of the grid.
+     * @param seed Seed for the random source.
+     * @return A source emitting the rows {@link #stream(int, int, long, RowSink)} would produce.
+     */
+    public RowSource rowSource(int rows, int cols, long seed) {
+        return new RowSource() {
+            @Override
+            public int rows() {
+                return rows;
+            }
+
+            @Override
+            public int cols() {
+                return cols;
+            }
+
+            @Override
+            public void emit(RowSink sink) throws IOException {
+                stream(rows, cols, seed, sink);
             }
+        };
+    }
+
+    /**
+     * Carves the region as independent square tiles on the common ForkJoinPool and joins them into one
+     * perfect maze: the tiles are linked by a random spanning tree, and exactly one wall is opened on
+     * the border of every linked pair. Each tile only touches its own cells and inner walls, so tiles
+     * never write the same cell; shared bitset words are updated atomically.
+     */
+    private void carveTiled(BitMaze grid, Region region, Carver carver, SplittableRandom random) {
+        int cellRows = region.cellRows();
+        int cellCols = region.cellCols();
+        int tilesDown = (cellRows + TILE_CELLS - 1) / TILE_CELLS;
+        int tilesAcross = (cellCols + TILE_CELLS - 1) / TILE_CELLS;
+
+        Region[] tiles = new Region[tilesDown * tilesAcross];
+        // one random stream per tile, split in a fixed order so the maze only depends on the seed
+        SplittableRandom[] streams = new SplittableRandom[tiles.length];
+        for (int t = 0; t < tiles.length; t++) {
+            int top = region.top() + 2 * TILE_CELLS * (t / tilesAcross);
+            int left = region.left() + 2 * TILE_CELLS * (t % tilesAcross);
+            tiles[t] = new Region(top, Math.min(top + 2 * (TILE_CELLS - 1), region.bottom()),
+                    left, Math.min(left + 2 * (TILE_CELLS - 1), region.right()));
+            streams[t] = random.split();
         }
+
+        if (tiles.length <= 1) {
+            carver.carve(grid, region, random, false);
+            return;
+        }
+        IntStream.range(0, tiles.length).parallel()
+                .forEach(t -> carver.carve(grid, tiles[t], streams[t], true));
+
+        linkTiles(grid, tiles, tilesAcross, random);
     }
 
-    private void addNeighbors(int row, int col, int[][] grid, List<Tile> neighbors) {
-        // up, down, left, right
-        int[][] dirs = {{-2, 0}, {2, 0}, {0, -2}, {0, 2}};
-        int height = grid.length - 1;
-        int width = grid[0].length - 1;
+    /**
+     * Connects the tiles with a randomized Kruskal spanning tree over the tile grid.
+     */
+    private void linkTiles(BitMaze grid, Region[] tiles, int tilesAcross, SplittableRandom random) {
+        List<int[]> links = new ArrayList<>();
+        for (int t = 0; t < tiles.length; t++) {
+            if ((t + 1) % tilesAcross != 0) links.add(new int[]{t, t + 1});
+            if (t + tilesAcross < tiles.length) links.add(new int[]{t, t + tilesAcross});
+        }
+        for (int i = links.size() - 1; i > 0; i--) {
+            Collections.swap(links, i, random.nextInt(i + 1));
+        }
 
+        int[] parent = new int[tiles.length];
+        Arrays.setAll(parent, i -> i);
+        for (int[] link : links) {
+            int a = root(parent, link[0]);
+            int b = root(parent, link[1]);
+            if (a == b) continue;
+            parent[a] = b;
 
-        for (int[] d : dirs) {
-            int nr = row + d[0];
-            int nc = col + d[1];
-
-            if (nr > 0 && nr < height && nc > 0 && nc < width) {
-                if (grid[nr][nc] == 1) {
-                    Point path = new Point(row + d[0] / 2, col + d[1] / 2);
-                    Point next = new Point(nr, nc);
-                    neighbors.add(new Tile(path, next));
-                }
+            Region from = tiles[link[0]];
+            Region to = tiles[link[1]];
+            if (to.left() > from.right()) {
+                // tiles side by side: open the wall right of a random cell in the shared rows
+                int row = from.top() + 2 * random.nextInt(from.cellRows());
+                grid.setWall(row * grid.cols() + from.right() + 1, false);
+            } else {
+                // tiles on top of each other: open the wall below a random cell in the shared columns
+                int col = from.left() + 2 * random.nextInt(from.cellCols());
+                grid.setWall((from.bottom() + 1) * grid.cols() + col, false);
             }
         }
     }
 
-    private void addEntryAndExitPoints(int[][] grid) {
+    private int root(int[] parent, int tile) {
+        while (parent[tile] != tile) {
+            parent[tile] = parent[parent[tile]];
+            tile = parent[tile];
+        }
+        return tile;
+    }
+
+    private void addEntryAndExitPoints(BitMaze grid, SplittableRandom random) {
         List<Point> candidates = new ArrayList<>();
-        int height = grid.length - 1;
-        int width = grid[0].length - 1;
+        int height = grid.rows() - 1;
+        int width = grid.cols() - 1;
 
         for (int i = 1; i < height; i++) {
             // Left side
-            if (grid[i][1] == 0) candidates.add(new Point(i, 0));
+            if (!grid.isWall(i, 1)) candidates.add(new Point(i, 0));
             // Right side
-            if (grid[i][width - 1] == 0) candidates.add(new Point(i, width));
+            if (!grid.isWall(i, width - 1)) candidates.add(new Point(i, width));
         }
 
         for (int i = 1; i < width; i++) {
             // Upper side
-            if (grid[1][i] == 0) candidates.add(new Point(0, i));
+            if (!grid.isWall(1, i)) candidates.add(new Point(0, i));
             // Bottom side
-            if (grid[height - 1][i] == 0) candidates.add(new Point(height, i));
+            if (!grid.isWall(height - 1, i)) candidates.add(new Point(height, i));
         }
 
         if (candidates.size() < 2) return;
@@ -121,18 +222,18 @@ public class MazeGenerator {
                     .orElse(candidates.getFirst());
         }
 
-        grid[p1.row()][p1.col()] = 0;
-        grid[p2.row()][p2.col()] = 0;
+        grid.set(p1.row(), p1.col(), 0);
+        grid.set(p2.row(), p2.col(), 0);
     }
 
     private double calculateDistance(Point a, Point b) {
         return Math.sqrt(Math.pow(a.row() - b.row(), 2) + Math.pow(a.col() - b.col(), 2));
     }
 
-    private boolean canOpen(int r, int c, int[][] grid) {
+    private boolean canOpen(int r, int c, BitMaze grid) {
         int openNeighbors = 0;
-        int height = grid.length;
-        int width = grid[0].length;
+        int height = grid.rows();
+        int width = grid.cols();
 
         int[][] dirs = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
         for (int[] d : dirs) {
@@ -141,7 +242,7 @@ public class MazeGenerator {
 
             if (nr >= 0 && nr < height &&
                 nc >= 0 && nc < width &&
-                grid[nr][nc] == 0) {
+                !grid.isWall(nr, nc)) {
                 openNeighbors++;
             }
         }
@@ -149,14 +250,14 @@ public class MazeGenerator {
         return openNeighbors == 1;
     }
 
-    private void stretchMazeIfEven(int[][] grid) {
-        int height = grid.length;
-        int width = grid[0].length;
+    private void stretchMazeIfEven(BitMaze grid) {
+        int height = grid.rows();
+        int width = grid.cols();
 
         if (height % 2 == 0) {
             for (int c = 1; c < width - 1; c++) {
                 if (canOpen(height - 2, c, grid)) {
-                    grid[height - 2][c] = 0;
+                    grid.set(height - 2, c, 0);
                 }
             }
         }
@@ -164,7 +265,7 @@ public class MazeGenerator {
         if (width % 2 == 0) {
             for (int r = 1; r < height - 1; r++) {
                 if (canOpen(r, width - 2, grid)) {
-                    grid[r][width - 2] = 0;
+                    grid.set(r, width - 2, 0);
                 }
             }
         }
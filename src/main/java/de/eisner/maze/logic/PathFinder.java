@@ -1,5 +1,7 @@
 package de.eisner.maze.logic;
 
+import de.eisner.maze.logic.solver.SearchStats;
+import de.eisner.maze.logic.solver.SolverStrategy;
 import de.eisner.maze.model.Maze;
 import de.eisner.maze.model.Point;
 
@@ -7,7 +9,7 @@ import java.util.*;
 
 /**
  * Logic class for finding the shortest path through a maze.
- * Utilizes a Breadth-First Search (BFS) algorithm to ensure the shortest path is found.
+ * The search itself is delegated to a {@link SolverStrategy}; Breadth-First Search (BFS) is used by default.
  */
 public class PathFinder {
 
@@ -17,77 +19,75 @@ public class PathFinder {
      * @return An Optional containing the Maze with marked path (value 2), or empty if no path exists.
      */
     public Optional<Maze> findPath(Maze maze) {
-        int[][] grid = maze.grid();
-        List<Point> exits = getAllExits(grid);
+        return findPath(maze, SolverStrategy.BFS);
+    }
+
+    /**
+     * Solves the maze with the given strategy by marking the path from the first exit to the last exit found.
+     * @param maze The maze to be solved.
+     * @param strategy The search algorithm to use.
+     * @return An Optional containing the Maze with marked path (value 2), or empty if no path exists.
+     */
+    public Optional<Maze> findPath(Maze maze, SolverStrategy strategy) {
+        List<Point> exits = getAllExits(maze);
 
         if (exits.size() < 2) {
             return Optional.empty();
         }
-        Point start = exits.getFirst();
-        Point end = exits.getLast();
-
-        Queue<Point> queue = new LinkedList<>();
-        Map<Point, Point> comeFrom = new HashMap<>();
-
-        queue.add(start);
-        comeFrom.put(start, null);
-
-        int height = grid.length;
-        int width = grid[0].length;
-        int[][] dirs = {{1,0},{-1,0},{0,1},{0,-1}};
-
-        boolean found = false;
-        while (!queue.isEmpty()) {
-            Point current = queue.poll();
-
-            if (current.equals(end)) {
-                found = true;
-                break;
-            }
+        return findPath(maze, exits.getFirst(), exits.getLast(), strategy);
+    }
 
-            for (int[] d : dirs) {
-                Point neighbor = new Point(current.row() + d[0], current.col() + d[1]);
+    /**
+     * Solves the maze with the given strategy by marking the path between two given cells.
+     * @param maze The maze to be solved.
+     * @param from The first cell of the path.
+     * @param to The last cell of the path.
+     * @param strategy The search algorithm to use.
+     * @return An Optional containing the Maze with marked path (value 2), or empty if no path exists.
+     */
+    public Optional<Maze> findPath(Maze maze, Point from, Point to, SolverStrategy strategy) {
+        return findPath(maze, from, to, strategy, null);
+    }
 
-                // not visited yet, within bound and is pass
-                if (neighbor.row() >= 0 && neighbor.row() < height &&
-                    neighbor.col() >= 0 && neighbor.col() < width &&
-                    grid[neighbor.row()][neighbor.col()] == 0 &&
-                    !comeFrom.containsKey(neighbor)) {
+    /**
+     * Solves the maze like {@link #findPath(Maze, Point, Point, SolverStrategy)} and reports the search effort.
+     * @param stats Receives the expanded cells, the peak frontier and the path length; may be null.
+     * @return An Optional containing the Maze with marked path (value 2), or empty if no path exists.
+     */
+    public Optional<Maze> findPath(Maze maze, Point from, Point to, SolverStrategy strategy, SearchStats stats) {
+        int width = maze.cols();
+        int start = from.row() * width + from.col();
+        int end = to.row() * width + to.col();
 
-                    comeFrom.put(neighbor, current);
-                    queue.add(neighbor);
-                }
-            }
+        int[] path = strategy.solve(maze, start, end, stats);
+        if (path.length == 0) {
+            return Optional.empty();
         }
 
-        if (found) {
-            int[][] gridCopy = Arrays.stream(grid).map(int[]::clone).toArray(int[][]::new);
-            Point step = end;
-            while (step != null) {
-                gridCopy[step.row()][step.col()] = 2;
-                step = comeFrom.get(step);
-            }
-            return Optional.of(new Maze(gridCopy));
+        Maze solved = maze.copy();
+        for (int cell : path) {
+            solved.set(cell / width, cell % width, 2);
         }
-
-        return Optional.empty();
+        return Optional.of(solved);
     }
 
     /**
      * Scans the maze boundaries for any traversable tiles (value 0).
-     * @param m The grid to scan.
+     * Only border tiles are visited, in row-major order.
+     * @param maze The maze to scan.
      * @return List of points on the border.
      */
-    public List<Point> getAllExits(int[][] m) {
+    public List<Point> getAllExits(Maze maze) {
         List<Point> exits = new ArrayList<>();
-        int h = m.length;
-        int w = m[0].length;
+        int h = maze.rows();
+        int w = maze.cols();
 
         for (int r = 0; r < h; r++) {
-            for (int c = 0; c < w; c++) {
-                boolean isBorder = (r == 0 || r == h - 1 || c == 0 || c == w - 1);
+            boolean isBorderRow = r == 0 || r == h - 1;
+            int step = isBorderRow ? 1 : Math.max(1, w - 1);
 
-                if (isBorder && m[r][c] == 0) {
+            for (int c = 0; c < w; c += step) {
+                if (maze.get(r, c) == 0) {
                     exits.add(new Point(r, c));
                 }
             }
@@ -0,0 +1,171 @@
+package de.eisner.maze.logic.batch;
+
+import de.eisner.maze.logic.MazeGenerator;
+import de.eisner.maze.logic.PathFinder;
+import de.eisner.maze.logic.io.MazeRepository;
+import de.eisner.maze.logic.io.MazeRepositoryImpl;
+import de.eisner.maze.model.Maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces many mazes as a three-stage pipeline: generate, solve and save.
+ * Generation and solving are CPU bound and run on fixed thread pools that split the requested threads;
+ * every file write runs on its own virtual thread. Bounded queues between the stages hold back faster
+ * stages instead of letting finished mazes pile up in memory.
+ */
+public class BatchPipeline {
+    /** Upper bound of files written at the same time. */
+    private static final int MAX_PARALLEL_WRITES = 64;
+
+    private final MazeGenerator generator = new MazeGenerator();
+    private final PathFinder pathFinder = new PathFinder();
+    private final MazeRepository repository = new MazeRepositoryImpl();
+
+    /**
+     * Runs the whole batch and waits until every maze is written.
+     * @param request What to produce and where to put it.
+     * @return Counters, throughput and back-pressure of the run.
+     * @throws IOException If the output directory cannot be created.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public BatchReport run(BatchRequest request) throws IOException, InterruptedException {
+        Files.createDirectories(request.outputDirectory());
+        long start = System.nanoTime();
+
+        int generateThreads = request.cpuThreads() / 2;
+        int solveThreads = request.cpuThreads() - generateThreads;
+        MeteredQueue<Job> toSolve = new MeteredQueue<>(request.queueCapacity());
+        MeteredQueue<Job> toSave = new MeteredQueue<>(request.queueCapacity());
+
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger solved = new AtomicInteger();
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService generatePool = Executors.newFixedThreadPool(generateThreads);
+        ExecutorService solvePool = Executors.newFixedThreadPool(solveThreads);
+        Thread saver = null;
+        try {
+            List<Future<?>> generators = new ArrayList<>();
+            for (int t = 0; t < generateThreads; t++) {
+                generators.add(generatePool.submit(() -> {
+                    for (int i = nextIndex.getAndIncrement(); i < request.count(); i = nextIndex.getAndIncrement()) {
+                        long seed = request.firstSeed() + i;
+                        try {
+                            toSolve.put(new Job(seed, generate(request, seed)));
+                            generated.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<?>> solvers = new ArrayList<>();
+            for (int t = 0; t < solveThreads; t++) {
+                solvers.add(solvePool.submit(() -> {
+                    for (Job job = toSolve.take(); job != Job.END; job = toSolve.take()) {
+                        Optional<Maze> path;
+                        try {
+                            path = pathFinder.findPath(job.maze());
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            continue;
+                        }
+                        if (path.isPresent()) {
+                            solved.incrementAndGet();
+                        }
+                        toSave.put(new Job(job.seed(), path.orElse(job.maze())));
+                    }
+                    return null;
+                }));
+            }
+
+            // A daemon, so a failed run cannot keep the JVM alive while the saver waits for jobs
+            saver = Thread.ofPlatform().daemon().name("maze-batch-save").start(() ->
+                    saveAll(request, toSave, saved, failed));
+
+            awaitAll(generators);
+            toSolve.finish(Job.END, solveThreads);
+            awaitAll(solvers);
+            toSave.finish(Job.END, 1);
+            saver.join();
+        } finally {
+            generatePool.shutdownNow();
+            solvePool.shutdownNow();
+            if (saver != null) {
+                // Only still waiting if a stage failed before the end marker was posted
+                saver.interrupt();
+            }
+        }
+
+        return new BatchReport(generated.get(), solved.get(), saved.get(), failed.get(),
+                Duration.ofNanos(System.nanoTime() - start), toSolve.stats(), toSave.stats());
+    }
+
+    private Maze generate(BatchRequest request, long seed) {
+        SplittableRandom sizes = new SplittableRandom(seed);
+        int rows = sizes.nextInt(request.minRows(), request.maxRows() + 1);
+        int cols = sizes.nextInt(request.minCols(), request.maxCols() + 1);
+        return generator.generate(rows, cols, seed);
+    }
+
+    /**
+     * Hands every solved maze to its own virtual thread, with a semaphore bounding the open files.
+     */
+    private void saveAll(BatchRequest request, MeteredQueue<Job> toSave, AtomicInteger saved, AtomicInteger failed) {
+        Semaphore writes = new Semaphore(MAX_PARALLEL_WRITES);
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Job job = toSave.take(); job != Job.END; job = toSave.take()) {
+                writes.acquire();
+                Job current = job;
+                writers.submit(() -> {
+                    try {
+                        String file = request.outputDirectory()
+                                .resolve("maze-" + current.seed() + request.extension()).toString();
+                        if (repository.save(file, current.maze())) {
+                            saved.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    } finally {
+                        writes.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch stage failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * One maze travelling through the pipeline.
+     */
+    private record Job(long seed, Maze maze) {
+        /** Marker telling a stage worker that no more jobs follow. */
+        static final Job END = new Job(0, null);
+    }
+}
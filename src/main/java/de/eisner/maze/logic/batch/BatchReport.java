@@ -0,0 +1,26 @@
+package de.eisner.maze.logic.batch;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a batch run.
+ * @param generated Mazes generated.
+ * @param solved Mazes for which a path was found.
+ * @param saved Mazes written to disk.
+ * @param failed Mazes that were dropped because generating, solving or writing them threw or failed.
+ *               A maze without a path is not a failure; it is saved unsolved.
+ * @param elapsed Wall-clock time of the whole run.
+ * @param toSolve Back-pressure of the queue between generation and solving.
+ * @param toSave Back-pressure of the queue between solving and saving.
+ */
+public record BatchReport(int generated, int solved, int saved, int failed, Duration elapsed,
+                          QueueStats toSolve, QueueStats toSave) {
+
+    /**
+     * @return Saved mazes per second of wall-clock time.
+     */
+    public double mazesPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : saved / seconds;
+    }
+}
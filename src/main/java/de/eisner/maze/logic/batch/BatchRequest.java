@@ -0,0 +1,41 @@
+package de.eisner.maze.logic.batch;
+
+import java.nio.file.Path;
+
+/**
+ * Describes a batch of mazes to generate, solve and save.
+ * Maze {@code i} uses the seed {@code firstSeed + i}; its size is drawn uniformly from the given ranges
+ * with a random source seeded by the same seed, so a batch is fully reproducible.
+ * @param count Number of mazes.
+ * @param minRows Smallest number of rows (inclusive).
+ * @param maxRows Largest number of rows (inclusive).
+ * @param minCols Smallest number of columns (inclusive).
+ * @param maxCols Largest number of columns (inclusive).
+ * @param firstSeed Seed of the first maze.
+ * @param outputDirectory Directory the mazes are written to as {@code maze-<seed><extension>}.
+ * @param extension File extension selecting the format, e.g. ".txt" or ".mzb".
+ * @param cpuThreads Threads shared by the generate and solve stages.
+ * @param queueCapacity Capacity of each queue between two stages.
+ */
+public record BatchRequest(int count, int minRows, int maxRows, int minCols, int maxCols, long firstSeed,
+                           Path outputDirectory, String extension, int cpuThreads, int queueCapacity) {
+
+    public BatchRequest {
+        if (count < 0 || minRows < 3 || minCols < 3 || maxRows < minRows || maxCols < minCols) {
+            throw new IllegalArgumentException("Invalid batch size or dimensions");
+        }
+        if (cpuThreads < 2 || queueCapacity < 1) {
+            throw new IllegalArgumentException("A batch needs at least 2 threads and a queue capacity of 1");
+        }
+    }
+
+    /**
+     * @return A request using all available cores and queues of 64 mazes.
+     */
+    public static BatchRequest of(int count, int minSize, int maxSize, long firstSeed,
+                                  Path outputDirectory, String extension) {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return new BatchRequest(count, minSize, maxSize, minSize, maxSize, firstSeed,
+                outputDirectory, extension, threads, 64);
+    }
+}
@@ -0,0 +1,49 @@
+package de.eisner.maze.logic.batch;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded blocking queue that records how often and how long producers were held back.
+ */
+class MeteredQueue<T> {
+    private final BlockingQueue<T> queue;
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder blockedPuts = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final AtomicInteger peakSize = new AtomicInteger();
+
+    MeteredQueue(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void put(T item) throws InterruptedException {
+        if (!queue.offer(item)) {
+            long start = System.nanoTime();
+            queue.put(item);
+            blockedNanos.add(System.nanoTime() - start);
+            blockedPuts.increment();
+        }
+        puts.increment();
+        peakSize.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Tells the given number of consumers to stop, without counting the markers as traffic.
+     */
+    void finish(T endMarker, int consumers) throws InterruptedException {
+        for (int i = 0; i < consumers; i++) {
+            queue.put(endMarker);
+        }
+    }
+
+    T take() throws InterruptedException {
+        return queue.take();
+    }
+
+    QueueStats stats() {
+        return new QueueStats(puts.sum(), blockedPuts.sum(), blockedNanos.sum() / 1_000_000, peakSize.get());
+    }
+}
@@ -0,0 +1,11 @@
+package de.eisner.maze.logic.batch;
+
+/**
+ * Back-pressure counters of one queue between two pipeline stages.
+ * @param puts Items handed to the next stage.
+ * @param blockedPuts Puts that found the queue full and had to wait.
+ * @param blockedMillis Total time producers waited for free space.
+ * @param peakSize Largest number of items queued at once.
+ */
+public record QueueStats(long puts, long blockedPuts, long blockedMillis, int peakSize) {
+}
@@ -0,0 +1,52 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Recursive backtracker (randomized depth-first search).
+ * The recursion is replaced by an int stack of grid indices, so even very long corridors cannot overflow
+ * the call stack. A cell counts as visited once it is open.
+ */
+public class BacktrackerCarver implements Carver {
+
+    @Override
+    public void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent) {
+        int cols = grid.cols();
+        int[] stack = new int[64];
+        int[] options = new int[4];
+
+        int start = (region.top() + 2 * random.nextInt(region.cellRows())) * cols
+                + region.left() + 2 * random.nextInt(region.cellCols());
+        Carver.open(grid, start, concurrent);
+        stack[0] = start;
+        int size = 1;
+
+        while (size > 0) {
+            int cell = stack[size - 1];
+            int row = cell / cols;
+            int col = cell - row * cols;
+
+            int count = 0;
+            if (row - 2 >= region.top() && grid.isWall(cell - 2 * cols)) options[count++] = -cols;
+            if (row + 2 <= region.bottom() && grid.isWall(cell + 2 * cols)) options[count++] = cols;
+            if (col - 2 >= region.left() && grid.isWall(cell - 2)) options[count++] = -1;
+            if (col + 2 <= region.right() && grid.isWall(cell + 2)) options[count++] = 1;
+
+            if (count == 0) {
+                size--;
+                continue;
+            }
+
+            int step = options[random.nextInt(count)];
+            Carver.open(grid, cell + step, concurrent);
+            Carver.open(grid, cell + 2 * step, concurrent);
+            if (size == stack.length) {
+                stack = Arrays.copyOf(stack, size * 2);
+            }
+            stack[size++] = cell + 2 * step;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Binary tree algorithm: every cell opens the wall to its north or west neighbor.
+ * The first row can only open west and the first column only north, which leaves both as straight corridors.
+ */
+public class BinaryTreeCarver implements Carver {
+
+    @Override
+    public void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent) {
+        int cols = grid.cols();
+        for (int row = region.top(); row <= region.bottom(); row += 2) {
+            for (int col = region.left(); col <= region.right(); col += 2) {
+                int cell = row * cols + col;
+                Carver.open(grid, cell, concurrent);
+
+                boolean canGoNorth = row > region.top();
+                boolean canGoWest = col > region.left();
+                if (canGoNorth && (!canGoWest || random.nextBoolean())) {
+                    Carver.open(grid, cell - cols, concurrent);
+                } else if (canGoWest) {
+                    Carver.open(grid, cell - 1, concurrent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Strategy interface for carving a perfect maze into a rectangular region of a grid that starts as all walls.
+ * Carvers only open cells and walls inside their region, so several regions of one grid can be carved
+ * at the same time and linked afterwards.
+ */
+public interface Carver {
+    /** Randomized Prim's algorithm: grows the maze from a random frontier wall. */
+    Carver PRIM = new PrimCarver();
+    /** Depth-first search with an explicit stack: long, winding corridors. */
+    Carver RECURSIVE_BACKTRACKER = new BacktrackerCarver();
+    /** Loop-erased random walks: an unbiased sample of all perfect mazes. */
+    Carver WILSON = new WilsonCarver();
+    /** Every cell opens towards the north or the west: fast, with a strong diagonal bias. */
+    Carver BINARY_TREE = new BinaryTreeCarver();
+    /** Row by row, closing random runs of cells with one opening to the north. */
+    Carver SIDEWINDER = new SidewinderCarver();
+    /** Eller's algorithm: row by row with memory proportional to the width only. */
+    EllerCarver ELLER = new EllerCarver();
+
+    /**
+     * Carves a perfect maze into the cells of the region.
+     * @param grid The grid to carve into; the region is expected to be all walls.
+     * @param region The cells to connect.
+     * @param random The random source.
+     * @param concurrent true if other threads carve other regions of the same grid at the same time.
+     */
+    void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent);
+
+    /**
+     * Opens one grid position, atomically if other regions are carved at the same time.
+     */
+    static void open(BitMaze grid, int index, boolean concurrent) {
+        if (concurrent) {
+            grid.clearWallAtomically(index);
+        } else {
+            grid.setWall(index, false);
+        }
+    }
+}
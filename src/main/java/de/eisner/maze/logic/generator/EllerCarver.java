@@ -0,0 +1,192 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+import de.eisner.maze.model.RowSink;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Eller's algorithm. Cells of one row are grouped into sets of cells already connected through the rows above;
+ * neighbors of different sets are joined at random, and every set continues downwards at least once.
+ * The last row joins all remaining sets. Only the sets of the current row are kept, so the working memory
+ * grows with the width and not with the height, and finished rows can be {@link #stream streamed} to a sink.
+ */
+public class EllerCarver implements Carver {
+
+    @Override
+    public void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent) {
+        int cols = grid.cols();
+        int width = region.cellCols();
+        int height = region.cellRows();
+        Rows rows = new Rows(width, random);
+
+        for (int r = 0; r < height; r++) {
+            boolean last = r == height - 1;
+            rows.next(last);
+            int rowStart = (region.top() + 2 * r) * cols + region.left();
+            for (int c = 0; c < width; c++) {
+                int cell = rowStart + 2 * c;
+                Carver.open(grid, cell, concurrent);
+                if (c + 1 < width && rows.right[c]) Carver.open(grid, cell + 1, concurrent);
+                if (!last && rows.down[c]) Carver.open(grid, cell + cols, concurrent);
+            }
+        }
+    }
+
+    /**
+     * Generates a maze row by row and hands each finished grid row to the sink, without building the grid.
+     * The entry is placed on the top border and the exit on the bottom border. If the height is even,
+     * the spare row above the bottom border stays closed except for the corridor to the exit;
+     * a spare column of an even width stays closed.
+     * @param rows Height of the grid, at least 3.
+     * @param cols Width of the grid, at least 3.
+     * @param random The random source.
+     * @param sink Receives the {@code rows} grid rows from top to bottom.
+     * @throws IOException If the sink fails.
+     */
+    public void stream(int rows, int cols, SplittableRandom random, RowSink sink) throws IOException {
+        if (rows < 3 || cols < 3) {
+            throw new IllegalArgumentException("A streamed maze needs at least 3 rows and 3 columns");
+        }
+        int width = (cols - 1) / 2;
+        int height = (rows - 1) / 2;
+        long[] line = new long[(cols + 63) >>> 6];
+        Rows sets = new Rows(width, random);
+
+        int entry = 1 + 2 * random.nextInt(width);
+        sink.accept(wallsExcept(line, cols, entry), null);
+
+        for (int r = 0; r < height; r++) {
+            boolean last = r == height - 1;
+            sets.next(last);
+
+            fillWalls(line, cols);
+            for (int c = 0; c < width; c++) {
+                clear(line, 1 + 2 * c);
+                if (c + 1 < width && sets.right[c]) clear(line, 2 + 2 * c);
+            }
+            sink.accept(line, null);
+
+            if (!last) {
+                fillWalls(line, cols);
+                for (int c = 0; c < width; c++) {
+                    if (sets.down[c]) clear(line, 1 + 2 * c);
+                }
+                sink.accept(line, null);
+            }
+        }
+
+        int exit = 1 + 2 * random.nextInt(width);
+        for (int row = 2 * height; row < rows; row++) {
+            sink.accept(wallsExcept(line, cols, exit), null);
+        }
+    }
+
+    private static long[] wallsExcept(long[] line, int cols, int col) {
+        fillWalls(line, cols);
+        clear(line, col);
+        return line;
+    }
+
+    private static void fillWalls(long[] line, int cols) {
+        Arrays.fill(line, -1L);
+        if ((cols & 63) != 0) {
+            line[line.length - 1] = (1L << cols) - 1;
+        }
+    }
+
+    private static void clear(long[] line, int col) {
+        line[col >>> 6] &= ~(1L << col);
+    }
+
+    /**
+     * Set bookkeeping for one row of cells. Set labels are kept in {@code [0, width)}: labels of cells
+     * connected from above are carried over, new cells take the smallest free labels, and joins within
+     * the row go through a small union-find over the labels.
+     */
+    private static final class Rows {
+        private final int width;
+        private final SplittableRandom random;
+        private final int[] set;
+        private final int[] parent;
+        private final int[] remaining;
+        private final boolean[] used;
+        private final boolean[] hasDown;
+        /** {@code right[c]} is true if cell c is joined to cell c + 1. */
+        final boolean[] right;
+        /** {@code down[c]} is true if cell c continues into the next row. */
+        final boolean[] down;
+
+        private Rows(int width, SplittableRandom random) {
+            this.width = width;
+            this.random = random;
+            this.set = new int[width];
+            this.parent = new int[width];
+            this.remaining = new int[width];
+            this.used = new boolean[width];
+            this.hasDown = new boolean[width];
+            this.right = new boolean[width];
+            this.down = new boolean[width];
+            Arrays.fill(set, -1);
+        }
+
+        /**
+         * Decides the joins of the next row.
+         * @param last true for the last row, which joins every pair of neighbors in different sets.
+         */
+        void next(boolean last) {
+            Arrays.fill(used, false);
+            for (int c = 0; c < width; c++) {
+                if (set[c] >= 0) used[set[c]] = true;
+            }
+            int free = 0;
+            for (int c = 0; c < width; c++) {
+                if (set[c] < 0) {
+                    while (used[free]) free++;
+                    set[c] = free;
+                    used[free] = true;
+                }
+            }
+
+            for (int label = 0; label < width; label++) {
+                parent[label] = label;
+            }
+            for (int c = 0; c + 1 < width; c++) {
+                int a = find(set[c]);
+                int b = find(set[c + 1]);
+                right[c] = a != b && (last || random.nextBoolean());
+                if (right[c]) parent[a] = b;
+            }
+            for (int c = 0; c < width; c++) {
+                set[c] = find(set[c]);
+            }
+            if (last) return;
+
+            // every set continues downwards at least once: its last cell goes down if no other did
+            Arrays.fill(remaining, 0);
+            Arrays.fill(hasDown, false);
+            for (int c = 0; c < width; c++) {
+                remaining[set[c]]++;
+            }
+            for (int c = 0; c < width; c++) {
+                int label = set[c];
+                remaining[label]--;
+                down[c] = random.nextBoolean() || (remaining[label] == 0 && !hasDown[label]);
+                hasDown[label] |= down[c];
+            }
+            for (int c = 0; c < width; c++) {
+                if (!down[c]) set[c] = -1;
+            }
+        }
+
+        private int find(int label) {
+            while (parent[label] != label) {
+                parent[label] = parent[parent[label]];
+                label = parent[label];
+            }
+            return label;
+        }
+    }
+}
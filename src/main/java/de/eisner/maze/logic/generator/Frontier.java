@@ -0,0 +1,103 @@
+package de.eisner.maze.logic.generator;
+
+import java.util.Arrays;
+
+/**
+ * Primitive frontier for the randomized Prim's algorithm.
+ * Behaves like a list of ints where an element is removed by its position, but without shifting the tail:
+ * removed slots are only flagged, and a Fenwick tree over the live slots finds the element at a given
+ * position in O(log n). The list order is exactly the one an {@code ArrayList} would have, so the same
+ * random positions select the same walls. Flagged slots are compacted away once the array is full.
+ */
+final class Frontier {
+    private static final int REMOVED = -1;
+
+    private int[] items = new int[64];
+    private int[] tree = new int[items.length + 1];
+    private int used;
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(int value) {
+        if (used == items.length) {
+            compact();
+        }
+        items[used++] = value;
+        update(used, 1);
+        size++;
+    }
+
+    /**
+     * Removes the element at the given position among the remaining elements.
+     * @param position 0-based position in insertion order.
+     * @return The removed element.
+     */
+    int removeAt(int position) {
+        int slot = find(position);
+        int value = items[slot - 1];
+        items[slot - 1] = REMOVED;
+        update(slot, -1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Returns the smallest 1-based slot whose prefix count of live elements exceeds the given position.
+     */
+    private int find(int position) {
+        int slot = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(items.length); step > 0; step >>>= 1) {
+            int next = slot + step;
+            if (next <= items.length && tree[next] <= remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slot + 1;
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Moves the live elements to the front, keeping their order, and grows the array if it stays more than half full.
+     */
+    private void compact() {
+        int[] target = size > items.length / 2 ? new int[items.length * 2] : items;
+        int live = 0;
+        for (int i = 0; i < used; i++) {
+            if (items[i] != REMOVED) {
+                target[live++] = items[i];
+            }
+        }
+        items = target;
+        used = live;
+
+        if (tree.length != items.length + 1) {
+            tree = new int[items.length + 1];
+        } else {
+            Arrays.fill(tree, 0);
+        }
+        // linear Fenwick construction over the live prefix
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= live) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Modified Prim's algorithm on a grid of cells and walls.
+ * The frontier holds the walls between the maze and the cells two steps away; a random wall is picked
+ * and opened together with the closed cell behind it.
+ */
+public class PrimCarver implements Carver {
+
+    @Override
+    public void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent) {
+        Frontier frontier = new Frontier();
+        // initial cell
+        int row = region.top() + 2 * random.nextInt(region.cellRows());
+        int col = region.left() + 2 * random.nextInt(region.cellCols());
+        int start = row * grid.cols() + col;
+        Carver.open(grid, start, concurrent);
+        addNeighbors(start, grid, region, frontier);
+
+        // further cells
+        while (!frontier.isEmpty()) {
+            int wall = frontier.removeAt(random.nextInt(frontier.size()));
+            int next = closedCellBehind(wall, grid);
+
+            if (next >= 0) {
+                Carver.open(grid, wall, concurrent);
+                Carver.open(grid, next, concurrent);
+                addNeighbors(next, grid, region, frontier);
+            }
+        }
+    }
+
+    /**
+     * Adds the walls towards all still closed cells of the region two steps away to the frontier.
+     * Only the flat index of the wall is stored; the cell behind it is resolved when the wall is picked.
+     */
+    private void addNeighbors(int cell, BitMaze grid, Region region, Frontier frontier) {
+        int cols = grid.cols();
+        int row = cell / cols;
+        int col = cell % cols;
+
+        // up, down, left, right
+        if (row - 2 >= region.top() && grid.isWall(cell - 2 * cols)) frontier.add(cell - cols);
+        if (row + 2 <= region.bottom() && grid.isWall(cell + 2 * cols)) frontier.add(cell + cols);
+        if (col - 2 >= region.left() && grid.isWall(cell - 2)) frontier.add(cell - 1);
+        if (col + 2 <= region.right() && grid.isWall(cell + 2)) frontier.add(cell + 1);
+    }
+
+    /**
+     * Resolves the cell a frontier wall leads to.
+     * Walls between horizontal neighbors lie on odd rows, walls between vertical neighbors on even rows.
+     * One side is always the open cell that added the wall, so the other side is the destination.
+     * @return The flat index of the destination cell, or -1 if it has been opened in the meantime.
+     */
+    private int closedCellBehind(int wall, BitMaze grid) {
+        int step = (wall / grid.cols()) % 2 == 1 ? 1 : grid.cols();
+
+        if (grid.isWall(wall - step)) return wall - step;
+        if (grid.isWall(wall + step)) return wall + step;
+        return -1;
+    }
+}
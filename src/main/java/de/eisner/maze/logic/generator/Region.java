@@ -0,0 +1,22 @@
+package de.eisner.maze.logic.generator;
+
+/**
+ * Rectangle of maze cells given by the grid coordinates of its outermost cells (all odd, inclusive).
+ * Cells sit on odd rows and columns; the grid positions between two cells are the walls that can be opened.
+ */
+public record Region(int top, int bottom, int left, int right) {
+
+    /**
+     * @return The number of cell rows in the region.
+     */
+    public int cellRows() {
+        return (bottom - top) / 2 + 1;
+    }
+
+    /**
+     * @return The number of cell columns in the region.
+     */
+    public int cellCols() {
+        return (right - left) / 2 + 1;
+    }
+}
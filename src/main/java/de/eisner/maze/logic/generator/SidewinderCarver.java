@@ -0,0 +1,34 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sidewinder algorithm: each row is split into random runs of cells joined east to west,
+ * and every run opens one random cell to the row above. The first row is one long corridor.
+ */
+public class SidewinderCarver implements Carver {
+
+    @Override
+    public void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent) {
+        int cols = grid.cols();
+        for (int row = region.top(); row <= region.bottom(); row += 2) {
+            int runStart = region.left();
+            for (int col = region.left(); col <= region.right(); col += 2) {
+                int cell = row * cols + col;
+                Carver.open(grid, cell, concurrent);
+
+                boolean lastInRow = col == region.right();
+                boolean closeRun = row > region.top() && (lastInRow || random.nextBoolean());
+                if (closeRun) {
+                    int chosen = runStart + 2 * random.nextInt((col - runStart) / 2 + 1);
+                    Carver.open(grid, (row - 1) * cols + chosen, concurrent);
+                    runStart = col + 2;
+                } else if (!lastInRow) {
+                    Carver.open(grid, cell + 1, concurrent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.eisner.maze.logic.generator;
+
+import de.eisner.maze.model.BitMaze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Wilson's algorithm. Starting from one random cell, every closed cell starts a random walk that ends
+ * when it hits the maze; only the last direction taken out of every cell is remembered, which erases
+ * loops, and the walk is then carved along those directions.
+ * Needs one byte per cell of the region for the remembered directions.
+ */
+public class WilsonCarver implements Carver {
+    private static final byte UP = 0;
+    private static final byte DOWN = 1;
+    private static final byte LEFT = 2;
+    private static final byte RIGHT = 3;
+
+    @Override
+    public void carve(BitMaze grid, Region region, SplittableRandom random, boolean concurrent) {
+        int cols = grid.cols();
+        int cellRows = region.cellRows();
+        int cellCols = region.cellCols();
+        byte[] directions = new byte[cellRows * cellCols];
+
+        int first = random.nextInt(cellRows * cellCols);
+        Carver.open(grid, gridIndex(first, region, cellCols, cols), concurrent);
+
+        for (int start = 0; start < directions.length; start++) {
+            if (!grid.isWall(gridIndex(start, region, cellCols, cols))) continue;
+
+            // random walk until the maze is hit, overwriting the direction of revisited cells
+            int cell = start;
+            while (grid.isWall(gridIndex(cell, region, cellCols, cols))) {
+                byte direction = randomDirection(cell, cellRows, cellCols, random);
+                directions[cell] = direction;
+                cell = neighbor(cell, direction, cellCols);
+            }
+
+            // carve the loop-free path the remembered directions describe
+            cell = start;
+            while (grid.isWall(gridIndex(cell, region, cellCols, cols))) {
+                int index = gridIndex(cell, region, cellCols, cols);
+                int next = neighbor(cell, directions[cell], cellCols);
+                Carver.open(grid, index, concurrent);
+                Carver.open(grid, (index + gridIndex(next, region, cellCols, cols)) / 2, concurrent);
+                cell = next;
+            }
+        }
+    }
+
+    private byte randomDirection(int cell, int cellRows, int cellCols, SplittableRandom random) {
+        int row = cell / cellCols;
+        int col = cell - row * cellCols;
+        while (true) {
+            byte direction = (byte) random.nextInt(4);
+            boolean inside = switch (direction) {
+                case UP -> row > 0;
+                case DOWN -> row + 1 < cellRows;
+                case LEFT -> col > 0;
+                default -> col + 1 < cellCols;
+            };
+            if (inside) return direction;
+        }
+    }
+
+    private int neighbor(int cell, byte direction, int cellCols) {
+        return switch (direction) {
+            case UP -> cell - cellCols;
+            case DOWN -> cell + cellCols;
+            case LEFT -> cell - 1;
+            default -> cell + 1;
+        };
+    }
+
+    private int gridIndex(int cell, Region region, int cellCols, int cols) {
+        int row = cell / cellCols;
+        int col = cell - row * cellCols;
+        return (region.top() + 2 * row) * cols + region.left() + 2 * col;
+    }
+}
@@ -0,0 +1,311 @@
+package de.eisner.maze.logic.io;
+
+import de.eisner.maze.model.BitMaze;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.RowSource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Compact binary format, written as a stream of rows.
+ * <p>
+ * All values are little-endian. The 16 byte header holds the magic {@code "MAZE"}, the format version (short),
+ * the payload encoding (short), the row count and the column count (ints). The payload stores 2 bits per tile
+ * (0=Pass, 1=Wall, 2=Path) in row-major order, four tiles per byte starting at the lowest bits.
+ * The low bit of each pair is therefore the wall bit and the high bit the path bit, which lets 64 tiles be
+ * split into the wall and path words of a {@link BitMaze} with two {@link Long#compress} calls.
+ * <p>
+ * With {@link #ENCODING_PACKED} the payload follows the header as is and is read through a memory-mapped
+ * file channel. With {@link #ENCODING_DEFLATE} the same payload is deflated and inflated in fixed chunks.
+ * Reading detects the encoding from the header, so one instance reads both.
+ */
+class BinaryMazeFormat implements MazeFormat {
+    static final int MAGIC = 0x455A414D; // "MAZE" read as little-endian int
+    static final short VERSION = 1;
+    static final short ENCODING_PACKED = 0;
+    static final short ENCODING_DEFLATE = 1;
+    static final int HEADER_SIZE = 16;
+
+    /** Multiple of 16 bytes, so every chunk but the last holds whole bitset words. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final long LOW_BITS = 0x5555555555555555L;
+    private static final long HIGH_BITS = 0xAAAAAAAAAAAAAAAAL;
+
+    private final short encoding;
+
+    /**
+     * @param encoding The payload encoding used when writing.
+     */
+    BinaryMazeFormat(short encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * The validated header of a binary maze file.
+     */
+    record Header(short encoding, int rows, int cols) {
+    }
+
+    /**
+     * Reads and validates the header from the start of the channel.
+     * @throws MazeFormatException If the header is invalid or does not match the file length.
+     */
+    static Header readHeader(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            throw new MazeFormatException("The file is too small for a binary maze header");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        int magic = header.getInt();
+        short version = header.getShort();
+        short payloadEncoding = header.getShort();
+        int rows = header.getInt();
+        int cols = header.getInt();
+
+        if (magic != MAGIC) {
+            throw new MazeFormatException("The file is not a binary maze");
+        }
+        if (version != VERSION || (payloadEncoding != ENCODING_PACKED && payloadEncoding != ENCODING_DEFLATE)) {
+            throw new MazeFormatException("Unsupported version " + version + " or encoding " + payloadEncoding);
+        }
+        if (rows <= 0 || cols <= 0
+                || (payloadEncoding == ENCODING_PACKED && fileSize != HEADER_SIZE + payloadSize(rows, cols))) {
+            throw new MazeFormatException("The size " + rows + "x" + cols + " does not match the file length");
+        }
+        return new Header(payloadEncoding, rows, cols);
+    }
+
+    @Override
+    public Maze read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            Header header = readHeader(channel);
+            int rows = header.rows();
+            int cols = header.cols();
+            if ((long) rows * cols > Integer.MAX_VALUE) {
+                throw new MazeFormatException("The maze " + rows + "x" + cols + " is too large to be loaded at once");
+            }
+
+            int words = BitMaze.words(rows, cols);
+            long[] walls = new long[words];
+            long[] marks = new long[words];
+            if (header.encoding() == ENCODING_PACKED) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN).position(HEADER_SIZE);
+                decode(buffer, 0, rows * cols, walls, marks);
+            } else {
+                channel.position(HEADER_SIZE);
+                inflate(channel, rows * cols, walls, marks);
+            }
+
+            boolean hasPath = false;
+            for (long word : marks) {
+                hasPath |= word != 0;
+            }
+            return new BitMaze(rows, cols, walls, hasPath ? marks : null);
+        }
+    }
+
+    /**
+     * Inflates the payload behind the header chunk by chunk and decodes every chunk right away.
+     */
+    private void inflate(FileChannel channel, int cells, long[] walls, long[] marks) throws IOException {
+        byte[] chunk = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN);
+        long remaining = payloadSize(1, cells);
+        int tile = 0;
+
+        Inflater inflater = new Inflater();
+        try (InputStream in = new InflaterInputStream(Channels.newInputStream(channel), inflater, BUFFER_SIZE)) {
+            while (remaining > 0) {
+                int length = (int) Math.min(BUFFER_SIZE, remaining);
+                if (in.readNBytes(chunk, 0, length) < length) {
+                    throw new MazeFormatException("The compressed payload ends after " + tile + " tiles");
+                }
+                buffer.clear().limit(length);
+                tile = decode(buffer, tile, cells, walls, marks);
+                remaining -= length;
+            }
+        } catch (ZipException | EOFException e) {
+            throw new MazeFormatException("The compressed payload is corrupt: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Splits packed tiles into the bitsets, 64 tiles (16 bytes) at a time while whole words are available.
+     * @param packed Payload bytes, positioned at the byte of tile {@code first}.
+     * @param first The first tile in the buffer; a multiple of 64.
+     * @return The tile following the last decoded one.
+     * @throws MazeFormatException If a tile has the undefined value 3.
+     */
+    private static int decode(ByteBuffer packed, int first, int cells, long[] walls, long[] marks)
+            throws MazeFormatException {
+        int tile = first;
+        while (packed.remaining() >= 16 && cells - tile >= 64) {
+            long low = packed.getLong();
+            long high = packed.getLong();
+            long invalidLow = low & low >>> 1 & LOW_BITS;
+            long invalidHigh = high & high >>> 1 & LOW_BITS;
+            if ((invalidLow | invalidHigh) != 0) {
+                throw invalidTile(invalidLow != 0
+                        ? tile + Long.numberOfTrailingZeros(invalidLow) / 2
+                        : tile + 32 + Long.numberOfTrailingZeros(invalidHigh) / 2);
+            }
+            int w = tile >>> 6;
+            walls[w] = Long.compress(low, LOW_BITS) | Long.compress(high, LOW_BITS) << 32;
+            marks[w] = Long.compress(low, HIGH_BITS) | Long.compress(high, HIGH_BITS) << 32;
+            tile += 64;
+        }
+        while (packed.hasRemaining() && tile < cells) {
+            int b = packed.get();
+            for (int k = 0; k < 4 && tile < cells; k++, tile++) {
+                int value = (b >>> (k * 2)) & 3;
+                if (value == 3) {
+                    throw invalidTile(tile);
+                }
+                if (value == 1) walls[tile >>> 6] |= 1L << tile;
+                if (value == 2) marks[tile >>> 6] |= 1L << tile;
+            }
+        }
+        return tile;
+    }
+
+    static MazeFormatException invalidTile(long tile) {
+        return new MazeFormatException("Undefined tile value 3 at tile " + tile);
+    }
+
+    /**
+     * Streams the rows through a reused direct buffer. Rows do not start on byte boundaries in the payload,
+     * so the packed tiles of every row are appended to a 64-bit accumulator that is flushed one long at a time.
+     * A deflated payload goes through the same accumulator into a heap buffer in front of the deflater.
+     */
+    @Override
+    public void write(Path path, RowSource source) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            write(channel, source);
+        }
+    }
+
+    /**
+     * Writes the header and the payload to any channel, e.g. a network stream. The channel is left open.
+     */
+    void write(WritableByteChannel channel, RowSource source) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(encoding);
+        buffer.putInt(source.rows());
+        buffer.putInt(source.cols());
+
+        if (encoding == ENCODING_PACKED) {
+            writeTiles(source, new TileWriter(channel, buffer));
+            return;
+        }
+
+        MazeFormat.drain(channel, buffer);
+        // Deflate at its fastest level: slower levels shrink the payload by a few percent at many times the cost
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        DeflaterOutputStream deflating =
+                new DeflaterOutputStream(Channels.newOutputStream(channel), deflater, BUFFER_SIZE);
+        try {
+            ByteBuffer heapBuffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            writeTiles(source, new TileWriter(Channels.newChannel(deflating), heapBuffer));
+            deflating.finish();
+            deflating.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeTiles(RowSource source, TileWriter tiles) throws IOException {
+        int cols = source.cols();
+        source.emit((walls, marks) -> {
+            for (int c = 0; c < cols; c += 64) {
+                long wallWord = walls[c >>> 6];
+                long markWord = marks == null ? 0L : marks[c >>> 6];
+                int count = Math.min(64, cols - c);
+                tiles.append(Long.expand(wallWord, LOW_BITS) | Long.expand(markWord, HIGH_BITS),
+                        2 * Math.min(32, count));
+                if (count > 32) {
+                    tiles.append(Long.expand(wallWord >>> 32, LOW_BITS) | Long.expand(markWord >>> 32, HIGH_BITS),
+                            2 * (count - 32));
+                }
+            }
+        });
+        tiles.finish();
+    }
+
+    static long payloadSize(int rows, int cols) {
+        return ((long) rows * cols + 3) / 4;
+    }
+
+    /**
+     * Packs a stream of bits into little-endian longs and writes them through the buffer.
+     */
+    private static final class TileWriter {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private long pending;
+        private int pendingBits;
+
+        private TileWriter(WritableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Appends the lowest {@code count} bits of the value (1 to 64).
+         */
+        private void append(long bits, int count) throws IOException {
+            if (count < 64) {
+                bits &= (1L << count) - 1;
+            }
+            pending |= bits << pendingBits;
+            if (pendingBits + count < 64) {
+                pendingBits += count;
+                return;
+            }
+
+            if (buffer.remaining() < Long.BYTES) {
+                MazeFormat.drain(channel, buffer);
+            }
+            buffer.putLong(pending);
+            pending = pendingBits == 0 ? 0L : bits >>> (64 - pendingBits);
+            pendingBits = pendingBits + count - 64;
+        }
+
+        /**
+         * Writes the remaining bits, padded to a full byte, and flushes the buffer.
+         */
+        private void finish() throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                MazeFormat.drain(channel, buffer);
+            }
+            for (int written = 0; written < pendingBits; written += 8) {
+                buffer.put((byte) (pending >>> written));
+            }
+            MazeFormat.drain(channel, buffer);
+        }
+    }
+}
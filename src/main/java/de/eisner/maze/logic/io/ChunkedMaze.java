@@ -0,0 +1,226 @@
+package de.eisner.maze.logic.io;
+
+import de.eisner.maze.model.BitMaze;
+import de.eisner.maze.model.Maze;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Read-only maze over a binary {@code .mzb} file that is too large for the heap.
+ * <p>
+ * The grid is divided into square tiles of {@value #TILE_SIZE} cells per side. A tile is decoded from the
+ * memory-mapped file the first time one of its cells is read and kept in a least-recently-used cache that is
+ * bounded by a memory budget. Callers that only look at a neighborhood, like a runner and a viewport,
+ * therefore hold a few tiles no matter how large the maze is; the operating system pages the file in and out.
+ * <p>
+ * Only the uncompressed packed encoding can be read at random positions. The maze may have more cells than
+ * an {@code int} can count, so operations over the whole grid, such as solving or {@link #copy()}, are only
+ * available for mazes that could also be loaded at once.
+ */
+public final class ChunkedMaze implements Maze {
+    static final int TILE_SIZE = 256;
+    /** Largest window of the file mapped at once; a single mapping cannot exceed 2 GiB. */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final int rows;
+    private final int cols;
+    private final int tilesAcross;
+    private final MappedByteBuffer[] segments;
+    private final long maxWeightBytes;
+    private final LinkedHashMap<Long, BitMaze> tiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+    private long tileLoads;
+
+    /** The tile of the previous lookup, so walking within one tile skips the cache. */
+    private volatile Hit lastHit;
+
+    private ChunkedMaze(int rows, int cols, MappedByteBuffer[] segments, long maxWeightBytes) {
+        this.rows = rows;
+        this.cols = cols;
+        this.tilesAcross = (cols + TILE_SIZE - 1) / TILE_SIZE;
+        this.segments = segments;
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    private record Hit(long key, BitMaze tile) {
+    }
+
+    /**
+     * Maps a packed binary maze file without reading its payload.
+     * @param path The {@code .mzb} file.
+     * @param maxWeightBytes Memory budget for decoded tiles; at least one tile is always kept.
+     * @throws MazeFormatException If the file is not an uncompressed binary maze.
+     */
+    static ChunkedMaze open(Path path, long maxWeightBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            BinaryMazeFormat.Header header = BinaryMazeFormat.readHeader(channel);
+            if (header.encoding() != BinaryMazeFormat.ENCODING_PACKED) {
+                throw new MazeFormatException("Only uncompressed binary mazes can be opened in tiles");
+            }
+
+            // The mappings stay valid after the channel is closed
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+            return new ChunkedMaze(header.rows(), header.cols(), segments, maxWeightBytes);
+        }
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        BitMaze tile = tileOf(row, col);
+        return tile.get(row % TILE_SIZE, col % TILE_SIZE);
+    }
+
+    @Override
+    public boolean isWall(int row, int col) {
+        BitMaze tile = tileOf(row, col);
+        return tile.isWall((row % TILE_SIZE) * tile.cols() + col % TILE_SIZE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; the maze is backed by a read-only mapping.
+     */
+    @Override
+    public void set(int row, int col, int value) {
+        throw new UnsupportedOperationException("Mazes opened in tiles are read-only");
+    }
+
+    /**
+     * Loads the whole maze into a mutable {@link BitMaze}.
+     * @throws UnsupportedOperationException If the maze has more cells than fit into one bitset.
+     */
+    @Override
+    public Maze copy() {
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new UnsupportedOperationException("The maze " + rows + "x" + cols + " is too large to be copied");
+        }
+        BitMaze copy = new BitMaze(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                copy.set(r, c, get(r, c));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @return Tiles currently held in memory.
+     */
+    public synchronized int residentTiles() {
+        return tiles.size();
+    }
+
+    /**
+     * @return Tiles decoded from the file so far, including ones loaded again after their eviction.
+     */
+    public synchronized long tileLoads() {
+        return tileLoads;
+    }
+
+    private BitMaze tileOf(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Cell " + row + "," + col + " is outside the maze");
+        }
+        long key = (long) (row / TILE_SIZE) * tilesAcross + col / TILE_SIZE;
+        Hit hit = lastHit;
+        if (hit != null && hit.key() == key) {
+            return hit.tile();
+        }
+
+        BitMaze tile = tile(key, row / TILE_SIZE, col / TILE_SIZE);
+        lastHit = new Hit(key, tile);
+        return tile;
+    }
+
+    private synchronized BitMaze tile(long key, int tileRow, int tileCol) {
+        BitMaze tile = tiles.get(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        tile = load(tileRow, tileCol);
+        tileLoads++;
+        tiles.put(key, tile);
+        weightBytes += weightOf(tile);
+
+        Iterator<Map.Entry<Long, BitMaze>> eldest = tiles.entrySet().iterator();
+        while (weightBytes > maxWeightBytes && tiles.size() > 1) {
+            weightBytes -= weightOf(eldest.next().getValue());
+            eldest.remove();
+        }
+        return tile;
+    }
+
+    /**
+     * Decodes one tile row by row. Rows of the file do not start on byte boundaries,
+     * so each row segment is copied into a small buffer and read from its bit offset.
+     * @throws UncheckedIOException If the tile holds the undefined value 3.
+     */
+    private BitMaze load(int tileRow, int tileCol) {
+        int firstRow = tileRow * TILE_SIZE;
+        int firstCol = tileCol * TILE_SIZE;
+        int height = Math.min(TILE_SIZE, rows - firstRow);
+        int width = Math.min(TILE_SIZE, cols - firstCol);
+        BitMaze tile = new BitMaze(height, width);
+        byte[] bytes = new byte[(2 * width + 6) / 8 + 1];
+
+        for (int r = 0; r < height; r++) {
+            long bit = 2 * ((long) (firstRow + r) * cols + firstCol);
+            int shift = (int) (bit & 7);
+            read(BinaryMazeFormat.HEADER_SIZE + (bit >>> 3), bytes, (shift + 2 * width + 7) / 8);
+            for (int c = 0; c < width; c++) {
+                int b = shift + 2 * c;
+                int value = (bytes[b >>> 3] >>> (b & 7)) & 3;
+                if (value == 3) {
+                    // Tiles are decoded lazily from Maze accessors, which cannot throw checked exceptions
+                    throw new UncheckedIOException(
+                            BinaryMazeFormat.invalidTile((long) (firstRow + r) * cols + firstCol + c));
+                }
+                if (value == 1) tile.setWall(r * width + c, true);
+                if (value == 2) tile.setPath(r * width + c, true);
+            }
+        }
+        return tile;
+    }
+
+    private void read(long offset, byte[] target, int length) {
+        int done = 0;
+        while (done < length) {
+            MappedByteBuffer segment = segments[(int) ((offset + done) / SEGMENT_SIZE)];
+            int position = (int) ((offset + done) % SEGMENT_SIZE);
+            int count = Math.min(length - done, segment.limit() - position);
+            segment.get(position, target, done, count);
+            done += count;
+        }
+    }
+
+    /**
+     * Counts the wall and the path bitset, whether or not the tile has marks, to stay within the budget.
+     */
+    private static long weightOf(BitMaze tile) {
+        return 64 + 2L * Long.BYTES * BitMaze.words(tile.rows(), tile.cols());
+    }
+}
@@ -0,0 +1,53 @@
+package de.eisner.maze.logic.io;
+
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.RowSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * One on-disk representation of a maze.
+ */
+interface MazeFormat {
+    /**
+     * Reads a maze from an existing file.
+     * @param path The source file.
+     * @return The maze.
+     * @throws MazeFormatException If the content does not match the format.
+     * @throws IOException If the file cannot be read.
+     */
+    Maze read(Path path) throws IOException;
+
+    /**
+     * Writes the maze, replacing the file if it exists.
+     * @param path The destination file.
+     * @param maze The maze to persist.
+     * @throws IOException If the file cannot be written.
+     */
+    default void write(Path path, Maze maze) throws IOException {
+        write(path, RowSource.of(maze));
+    }
+
+    /**
+     * Writes the rows as they are emitted, replacing the file if it exists. Only a fixed buffer is held,
+     * so the maze never has to fit into memory.
+     * @param path The destination file.
+     * @param rows The rows to persist.
+     * @throws IOException If the file cannot be written.
+     */
+    void write(Path path, RowSource rows) throws IOException;
+
+    /**
+     * Writes everything buffered so far to the channel and clears the buffer for reuse.
+     */
+    static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
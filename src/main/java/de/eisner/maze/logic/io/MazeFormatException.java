@@ -0,0 +1,16 @@
+package de.eisner.maze.logic.io;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Signals that a file does not contain a valid maze in the expected format.
+ */
+public class MazeFormatException extends IOException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public MazeFormatException(String message) {
+        super(message);
+    }
+}
@@ -1,13 +1,18 @@
 package de.eisner.maze.logic.io;
 
 import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.RowSource;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Interface for persistence operations regarding maze data.
  * Provides methods to load and save maze structures from/to the file system.
+ * Implementations may pick the file format from the file name.
  */
 public interface MazeRepository {
     /**
@@ -18,6 +23,41 @@ public interface MazeRepository {
      */
     Optional<Maze> load(String filePath) throws FileNotFoundException;
 
+    /**
+     * Opens a binary maze without reading it into memory. Its tiles are read from the file on demand
+     * and the least recently used ones are dropped once they exceed the memory budget.
+     * @param filePath The path to an uncompressed binary maze ({@code .mzb}).
+     * @param memoryBudgetBytes Memory the decoded tiles may take.
+     * @return An Optional containing the read-only Maze, or empty if the format is invalid.
+     * @throws FileNotFoundException If the file at the given path does not exist.
+     */
+    Optional<Maze> openChunked(String filePath, long memoryBudgetBytes) throws FileNotFoundException;
+
+    /**
+     * Loads the maze like {@link #load(String)}, unless it is an uncompressed binary maze that cannot be
+     * loaded at once because it has more cells than an {@code int} can count or does not fit into the free heap.
+     * Such a maze is opened like {@link #openChunked(String, long)} instead.
+     * @param filePath The path to the file.
+     * @param memoryBudgetBytes Memory the decoded tiles may take if the maze is opened in tiles.
+     * @return An Optional containing the Maze, or empty if the format is invalid.
+     * @throws FileNotFoundException If the file at the given path does not exist.
+     */
+    Optional<Maze> open(String filePath, long memoryBudgetBytes) throws FileNotFoundException;
+
+    /**
+     * @param maze A maze returned by this repository.
+     * @return true if the maze is read from its file in tiles and cannot be changed or handled as a whole.
+     */
+    boolean isChunked(Maze maze);
+
+    /**
+     * Reads the number of cells from the header of a binary maze without loading the maze.
+     * @param filePath The path to the file.
+     * @return The cell count, or empty for text files, whose size is only known once they are read.
+     * @throws FileNotFoundException If the file at the given path does not exist.
+     */
+    OptionalLong cellCount(String filePath) throws FileNotFoundException;
+
     /**
      * Saves the given maze to a specified file path.
      * @param filePath The destination path.
@@ -25,4 +65,20 @@ public interface MazeRepository {
      * @return true if the operation was successful, false otherwise.
      */
     boolean save(String filePath, Maze maze);
+
+    /**
+     * Saves a maze while its rows are produced, without holding the whole maze in memory.
+     * @param filePath The destination path.
+     * @param rows The source of the rows, e.g. a generator.
+     * @return true if the operation was successful, false otherwise.
+     */
+    boolean save(String filePath, RowSource rows);
+
+    /**
+     * Encodes a maze in the compact binary format of {@code .mzb} files, e.g. for a network response.
+     * @param maze The maze to encode.
+     * @param out Receives the encoded maze; it is flushed but not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    void writeBinary(Maze maze, OutputStream out) throws IOException;
 }
@@ -1,20 +1,43 @@
 package de.eisner.maze.logic.io;
 
+import de.eisner.maze.model.BitMaze;
 import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.RowSource;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Implementation of MazeRepository using standard Java NIO for file operations.
- * Maze data is expected to be stored as a text file where each digit represents a tile.
+ * When saving, the file format is chosen by extension: {@value #BINARY_EXTENSION} files use the compact
+ * binary format, {@value #COMPRESSED_EXTENSION} files the deflated binary format,
+ * {@value #GZIP_EXTENSION} files GZIP compressed text, and every other file is treated as text where each
+ * digit represents a tile. When loading, the format is detected from the first bytes of the file instead,
+ * so files load regardless of their name.
  */
 public class MazeRepositoryImpl implements MazeRepository {
+    public static final String BINARY_EXTENSION = ".mzb";
+    public static final String COMPRESSED_EXTENSION = ".mzc";
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private static final int GZIP_MAGIC = 0x8B1F; // first two bytes read as little-endian short
+
+    private final MazeFormat textFormat = new TextMazeFormat(false);
+    private final MazeFormat gzipTextFormat = new TextMazeFormat(true);
+    private final BinaryMazeFormat binaryFormat = new BinaryMazeFormat(BinaryMazeFormat.ENCODING_PACKED);
+    private final MazeFormat compressedFormat = new BinaryMazeFormat(BinaryMazeFormat.ENCODING_DEFLATE);
+
     @Override
     public Optional<Maze> load(String filePath) throws FileNotFoundException {
         Path path = Path.of(filePath);
@@ -24,47 +47,139 @@ public class MazeRepositoryImpl implements MazeRepository {
         }
 
         try {
-            var allLines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            return Optional.of(detectFormat(path).read(path));
+        } catch (MazeFormatException e) {
+            // Standard error, so the single JSON line of a CLI command stays alone on standard output
+            System.err.println("Cannot load the maze. It has an invalid format: " + e.getMessage());
+            return Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
 
-            if (allLines.isEmpty()) {
-                return Optional.empty();
-            }
+    @Override
+    public Optional<Maze> openChunked(String filePath, long memoryBudgetBytes) throws FileNotFoundException {
+        Path path = Path.of(filePath);
+        if (Files.notExists(path)) {
+            throw new FileNotFoundException("The file " + filePath + " does not exist");
+        }
+
+        try {
+            return Optional.of(ChunkedMaze.open(path, memoryBudgetBytes));
+        } catch (MazeFormatException e) {
+            System.err.println("Cannot open the maze. It has an invalid format: " + e.getMessage());
+            return Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
 
-            boolean invalidFormat = allLines.stream()
-                    .anyMatch(s -> !s.matches("[012]*"));
+    @Override
+    public Optional<Maze> open(String filePath, long memoryBudgetBytes) throws FileNotFoundException {
+        return fitsInMemory(Path.of(filePath)) ? load(filePath) : openChunked(filePath, memoryBudgetBytes);
+    }
 
-            if (invalidFormat) {
-                System.out.println("Cannot load the maze. It has an invalid format");
-                return Optional.empty();
+    @Override
+    public boolean isChunked(Maze maze) {
+        return maze instanceof ChunkedMaze;
+    }
+
+    @Override
+    public OptionalLong cellCount(String filePath) throws FileNotFoundException {
+        Path path = Path.of(filePath);
+        if (Files.notExists(path)) {
+            throw new FileNotFoundException("The file " + filePath + " does not exist");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (detectFormat(path) != binaryFormat) {
+                return OptionalLong.empty();
             }
+            BinaryMazeFormat.Header header = BinaryMazeFormat.readHeader(channel);
+            return OptionalLong.of((long) header.rows() * header.cols());
+        } catch (IOException e) {
+            // Left to load, which reports the invalid format
+            return OptionalLong.empty();
+        }
+    }
 
-            int[][] maze = allLines.stream()
-                    .map(s -> Arrays.stream(s.split(""))
-                            .mapToInt(Integer::parseInt).toArray())
-                    .toArray(int[][]::new);
-            return Optional.of(new Maze(maze));
+    /**
+     * Compares the bitsets a loaded binary maze needs with the heap that is still free.
+     * Anything that is not a readable packed binary maze is left to {@link #load(String)} and its error handling.
+     */
+    private boolean fitsInMemory(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (detectFormat(path) != binaryFormat) {
+                return true;
+            }
+            BinaryMazeFormat.Header header = BinaryMazeFormat.readHeader(channel);
+            if (header.encoding() != BinaryMazeFormat.ENCODING_PACKED) {
+                return true;
+            }
+            long cells = (long) header.rows() * header.cols();
+            if (cells > Integer.MAX_VALUE) {
+                return false;
+            }
+
+            Runtime runtime = Runtime.getRuntime();
+            long freeHeap = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+            return 2L * Long.BYTES * BitMaze.words(header.rows(), header.cols()) <= freeHeap;
         } catch (IOException e) {
-            return Optional.empty();
+            return true;
         }
     }
 
     @Override
     public boolean save(String filePath, Maze maze) {
         Path path = Path.of(filePath);
-        StringBuilder sb = new StringBuilder();
 
-        for (int[] row : maze.grid()) {
-            for (int c : row) {
-                sb.append(c);
-            }
-            sb.append(System.lineSeparator());
+        try {
+            formatOf(path).write(path, maze);
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not save file: " + e.getMessage());
         }
+    }
+
+    @Override
+    public boolean save(String filePath, RowSource rows) {
+        Path path = Path.of(filePath);
 
         try {
-            Files.writeString(path, sb.toString(), StandardCharsets.UTF_8);
+            formatOf(path).write(path, rows);
             return true;
         } catch (IOException e) {
             throw new RuntimeException("Could not save file: " + e.getMessage());
         }
     }
+
+    @Override
+    public void writeBinary(Maze maze, OutputStream out) throws IOException {
+        binaryFormat.write(Channels.newChannel(out), RowSource.of(maze));
+        out.flush();
+    }
+
+    private MazeFormat formatOf(Path path) {
+        Path fileName = path.getFileName();
+        String name = fileName == null ? "" : fileName.toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(BINARY_EXTENSION)) return binaryFormat;
+        if (name.endsWith(COMPRESSED_EXTENSION)) return compressedFormat;
+        if (name.endsWith(GZIP_EXTENSION)) return gzipTextFormat;
+        return textFormat;
+    }
+
+    /**
+     * Picks the format from the magic bytes at the start of the file; both binary encodings share one reader.
+     */
+    private MazeFormat detectFormat(Path path) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.read(start);
+        }
+        start.flip();
+
+        if (start.remaining() == Integer.BYTES && start.getInt(0) == BinaryMazeFormat.MAGIC) return binaryFormat;
+        if (start.remaining() >= 2 && (start.getShort(0) & 0xFFFF) == GZIP_MAGIC) return gzipTextFormat;
+        return textFormat;
+    }
 }
@@ -0,0 +1,204 @@
+package de.eisner.maze.logic.io;
+
+import de.eisner.maze.model.BitMaze;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.RowSource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Plain text format: one line per row, one digit (0=Pass, 1=Wall, 2=Path) per tile.
+ * The text can optionally be GZIP compressed; it is then inflated and deflated on the fly.
+ */
+class TextMazeFormat implements MazeFormat {
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Bitset words allocated up front when the uncompressed size is unknown. */
+    private static final int INITIAL_WORDS = 1 << 10;
+
+    private final boolean gzip;
+
+    /**
+     * @param gzip true to read and write GZIP compressed text.
+     */
+    TextMazeFormat(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    @Override
+    public Maze read(Path path) throws IOException {
+        if (!gzip) {
+            try (FileChannel channel = FileChannel.open(path, READ)) {
+                return read(channel, channel.size());
+            }
+        }
+        try (ReadableByteChannel channel = Channels.newChannel(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            return read(channel, -1);
+        } catch (ZipException | EOFException e) {
+            throw new MazeFormatException("The compressed data is corrupt: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the text in a single pass through a fixed byte buffer.
+     * Tiles are validated and written straight into the wall and path bitsets. A text of n bytes holds
+     * at most n tiles, so for plain files the bitsets are sized once from the file length and never grow;
+     * compressed text has no known length, so its bitsets grow by doubling.
+     * @param size Length of the text in bytes, or -1 if unknown.
+     */
+    private Maze read(ReadableByteChannel channel, long size) throws IOException {
+        if (size == 0) {
+            throw new MazeFormatException("The file is empty");
+        }
+
+        int words = size < 0 ? INITIAL_WORDS : (int) Math.min((size + 63) >>> 6, (Integer.MAX_VALUE >>> 6) + 1);
+        long[] walls = new long[words];
+        long[] marks = null;
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        long tiles = 0;
+        int rows = 0;
+        int cols = -1;
+        int col = 0;
+        boolean carriageReturn = false;
+
+        while (channel.read(buffer) != -1) {
+            int length = buffer.position();
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[i];
+
+                if (carriageReturn && b != '\n') {
+                    throw invalidByte('\r', rows, col + 1);
+                }
+                switch (b) {
+                    case '0', '1', '2' -> {
+                        if (col == cols) {
+                            throw new MazeFormatException("Line " + (rows + 1) + " is longer than "
+                                    + cols + " tiles at column " + (col + 1));
+                        }
+                        if (tiles == Integer.MAX_VALUE) {
+                            throw new MazeFormatException("The maze exceeds the maximum cell count");
+                        }
+                        int index = (int) tiles++;
+                        if (index >>> 6 == walls.length) {
+                            words = (int) Math.min(2L * words, (Integer.MAX_VALUE >>> 6) + 1);
+                            walls = Arrays.copyOf(walls, words);
+                            marks = marks == null ? null : Arrays.copyOf(marks, words);
+                        }
+                        if (b == '1') {
+                            walls[index >>> 6] |= 1L << index;
+                        } else if (b == '2') {
+                            if (marks == null) {
+                                marks = new long[words];
+                            }
+                            marks[index >>> 6] |= 1L << index;
+                        }
+                        col++;
+                    }
+                    case '\r' -> carriageReturn = true;
+                    case '\n' -> {
+                        cols = endRow(rows, col, cols);
+                        rows++;
+                        col = 0;
+                        carriageReturn = false;
+                    }
+                    default -> throw invalidByte(b, rows, col + 1);
+                }
+            }
+            buffer.clear();
+        }
+
+        if (col > 0 || carriageReturn) {
+            cols = endRow(rows, col, cols);
+            rows++;
+        }
+        if (rows == 0) {
+            throw new MazeFormatException("The file is empty");
+        }
+        return new BitMaze(rows, cols, walls, marks);
+    }
+
+    /**
+     * Checks the width of a finished row.
+     * @return The expected width of all rows, taken from the first row.
+     */
+    private int endRow(int row, int width, int expected) throws MazeFormatException {
+        if (width == 0) {
+            throw new MazeFormatException("Line " + (row + 1) + " is empty");
+        }
+        if (expected >= 0 && width != expected) {
+            throw new MazeFormatException("Line " + (row + 1) + " has " + width
+                    + " tiles instead of " + expected + " at column " + (width + 1));
+        }
+        return width;
+    }
+
+    private MazeFormatException invalidByte(int b, int row, int column) {
+        return new MazeFormatException(String.format("Unexpected character 0x%02X at line %d, column %d",
+                b & 0xFF, row + 1, column));
+    }
+
+    /**
+     * Opens a gzip stream at the fastest deflate level. The long runs of equal characters in a text maze
+     * compress almost as well there as at the default level, which takes many times longer.
+     */
+    private static GZIPOutputStream fastGzip(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+    }
+
+    /**
+     * Encodes every row into a reused buffer that is flushed to the channel whenever it fills up.
+     * Plain files get a direct buffer; compressed text goes through the deflater, which works on heap arrays.
+     */
+    @Override
+    public void write(Path path, RowSource source) throws IOException {
+        byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        int cols = source.cols();
+
+        try (WritableByteChannel channel = gzip
+                ? Channels.newChannel(fastGzip(Files.newOutputStream(path)))
+                : FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            ByteBuffer buffer = gzip ? ByteBuffer.allocate(BUFFER_SIZE) : ByteBuffer.allocateDirect(BUFFER_SIZE);
+            source.emit((walls, marks) -> {
+                for (int c = 0; c < cols; c += 64) {
+                    if (buffer.remaining() < 64) {
+                        MazeFormat.drain(channel, buffer);
+                    }
+                    long wallWord = walls[c >>> 6];
+                    long markWord = marks == null ? 0L : marks[c >>> 6];
+                    int end = Math.min(64, cols - c);
+                    for (int i = 0; i < end; i++) {
+                        buffer.put((byte) ('0' + (int) (wallWord >>> i & 1) + 2 * (int) (markWord >>> i & 1)));
+                    }
+                }
+                if (buffer.remaining() < lineSeparator.length) {
+                    MazeFormat.drain(channel, buffer);
+                }
+                buffer.put(lineSeparator);
+            });
+            MazeFormat.drain(channel, buffer);
+        }
+    }
+}
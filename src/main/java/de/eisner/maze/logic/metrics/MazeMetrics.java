@@ -0,0 +1,119 @@
+package de.eisner.maze.logic.metrics;
+
+import de.eisner.maze.logic.solver.SearchStats;
+import jdk.jfr.FlightRecorder;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the service operations, safe to update from many threads.
+ * <p>
+ * Collection is disabled by default and can be switched on at runtime or with {@code -Dmaze.metrics=true}.
+ * While it is off and Flight Recorder has not been started, {@link #start(Operation)} hands out a shared
+ * inactive sample without creating an event, so Flight Recorder is not even loaded, and no clock, allocation
+ * counter or search statistic is read. Flight Recorder events are independent of this switch:
+ * they are committed whenever a recording is running.
+ */
+public class MazeMetrics {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final Map<Operation, Counters> counters = new EnumMap<>(Operation.class);
+    private volatile boolean enabled = Boolean.getBoolean("maze.metrics");
+
+    public MazeMetrics() {
+        for (Operation operation : Operation.values()) {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts measuring one call of an operation.
+     * @param operation The operation that is about to run.
+     * @return The sample to {@link OperationSample#stop stop} when the call returns.
+     */
+    public OperationSample start(Operation operation) {
+        boolean collect = enabled;
+        // Creating the first event would load and set up Flight Recorder, which costs about 200 ms
+        if (!collect && !FlightRecorder.isInitialized()) {
+            return OperationSample.INACTIVE;
+        }
+        MazeOperationEvent event = new MazeOperationEvent();
+        if (!collect && !event.isEnabled()) {
+            return OperationSample.INACTIVE;
+        }
+        event.begin();
+        return new OperationSample(this, operation, collect, event, System.nanoTime(), allocatedBytes());
+    }
+
+    /**
+     * @param operation The operation to report.
+     * @return The counters collected since the start or the last {@link #reset()}.
+     */
+    public OperationStats snapshot(Operation operation) {
+        Counters c = counters.get(operation);
+        LatencyHistogram latency = c.latency;
+        return new OperationStats(operation, latency.count(), c.cells.sum(),
+                THREADS == null ? -1 : c.allocatedBytes.sum(), latency.total(),
+                latency.valueAt(50), latency.valueAt(90), latency.valueAt(99), latency.max(),
+                c.expandedCells.sum(), c.peakFrontier.get(), c.pathCells.sum());
+    }
+
+    public void reset() {
+        for (Counters c : counters.values()) {
+            c.latency.reset();
+            c.cells.reset();
+            c.allocatedBytes.reset();
+            c.expandedCells.reset();
+            c.peakFrontier.reset();
+            c.pathCells.reset();
+        }
+    }
+
+    void record(Operation operation, long nanos, long cells, long allocatedBytes, SearchStats search) {
+        Counters c = counters.get(operation);
+        c.latency.record(nanos);
+        c.cells.add(cells);
+        c.allocatedBytes.add(allocatedBytes);
+        if (search != null) {
+            c.expandedCells.add(search.expandedCells());
+            c.peakFrontier.accumulate(search.peakFrontier());
+            c.pathCells.add(search.pathLength());
+        }
+    }
+
+    /**
+     * @return Bytes allocated so far by the current thread, or 0 if the JVM does not count them.
+     */
+    static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    private static final class Counters {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder cells = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder expandedCells = new LongAdder();
+        private final LongAccumulator peakFrontier = new LongAccumulator(Math::max, 0);
+        private final LongAdder pathCells = new LongAdder();
+    }
+}
@@ -0,0 +1,42 @@
+package de.eisner.maze.logic.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one service operation, so slow calls can be lined up with GC pauses and maze sizes.
+ * The event is enabled by default, so any recording, e.g. one started with {@code -XX:StartFlightRecording},
+ * contains it. Outside of a recording it costs nothing.
+ */
+@Name("de.eisner.maze.Operation")
+@Label("Maze Operation")
+@Category("Maze")
+@Description("Generation, solving, loading, saving or rendering of a maze")
+@StackTrace(false)
+final class MazeOperationEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Expanded Cells")
+    long expandedCells;
+
+    @Label("Peak Frontier")
+    int peakFrontier;
+
+    @Label("Path Length")
+    int pathLength;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,12 @@
+package de.eisner.maze.logic.metrics;
+
+/**
+ * The service operations that are measured by {@link MazeMetrics}.
+ */
+public enum Operation {
+    GENERATE,
+    SOLVE,
+    LOAD,
+    SAVE,
+    RENDER
+}
@@ -0,0 +1,72 @@
+package de.eisner.maze.logic.metrics;
+
+import de.eisner.maze.logic.solver.SearchStats;
+
+/**
+ * One running measurement, started with {@link MazeMetrics#start(Operation)}.
+ * Samples are used by a single thread and stopped exactly once.
+ */
+public final class OperationSample {
+    /** Handed out while neither metrics nor Flight Recorder are collecting. */
+    static final OperationSample INACTIVE = new OperationSample(null, null, false, null, 0, 0);
+
+    private final MazeMetrics metrics;
+    private final Operation operation;
+    private final boolean collect;
+    private final MazeOperationEvent event;
+    private final long startNanos;
+    private final long startBytes;
+
+    OperationSample(MazeMetrics metrics, Operation operation, boolean collect, MazeOperationEvent event,
+                    long startNanos, long startBytes) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.collect = collect;
+        this.event = event;
+        this.startNanos = startNanos;
+        this.startBytes = startBytes;
+    }
+
+    /**
+     * @return true if anything is recorded, i.e. it is worth counting the search effort for {@link #stop}.
+     */
+    public boolean isActive() {
+        return this != INACTIVE;
+    }
+
+    /**
+     * Stops the measurement of an operation on a maze of the given size.
+     */
+    public void stop(int rows, int cols) {
+        stop(rows, cols, null);
+    }
+
+    /**
+     * Stops the measurement of a solve.
+     * @param search Effort of the search, or null if no search ran, e.g. because the solution was cached.
+     */
+    public void stop(int rows, int cols, SearchStats search) {
+        if (!isActive()) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long allocated = MazeMetrics.allocatedBytes() - startBytes;
+
+        if (collect) {
+            metrics.record(operation, nanos, (long) rows * cols, allocated, search);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            event.rows = rows;
+            event.cols = cols;
+            event.allocatedBytes = allocated;
+            if (search != null) {
+                event.expandedCells = search.expandedCells();
+                event.peakFrontier = search.peakFrontier();
+                event.pathLength = search.pathLength();
+            }
+            event.commit();
+        }
+    }
+}
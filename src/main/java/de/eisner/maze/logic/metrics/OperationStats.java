@@ -0,0 +1,29 @@
+package de.eisner.maze.logic.metrics;
+
+/**
+ * Snapshot of the counters of one operation.
+ * Latencies are wall-clock times; percentiles are accurate to about 6%.
+ * @param operation The measured operation.
+ * @param count Completed calls.
+ * @param cells Maze cells processed by all calls.
+ * @param allocatedBytes Bytes allocated by the calling threads during the calls, or -1 if the JVM cannot tell.
+ * @param totalNanos Sum of all latencies.
+ * @param p50Nanos Median latency.
+ * @param p90Nanos 90th percentile latency.
+ * @param p99Nanos 99th percentile latency.
+ * @param maxNanos Largest latency.
+ * @param expandedCells Cells or graph nodes expanded by all searches; solve only.
+ * @param peakFrontier Largest frontier of any search; solve only.
+ * @param pathCells Cells on all found paths; solve only.
+ */
+public record OperationStats(Operation operation, long count, long cells, long allocatedBytes,
+                             long totalNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos,
+                             long expandedCells, long peakFrontier, long pathCells) {
+
+    /**
+     * @return The mean latency, or 0 if nothing was measured.
+     */
+    public long meanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+}
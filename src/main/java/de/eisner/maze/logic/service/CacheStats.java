@@ -0,0 +1,12 @@
+package de.eisner.maze.logic.service;
+
+/**
+ * Snapshot of the solution cache counters.
+ * @param hits Lookups answered from the cache.
+ * @param misses Lookups that had to run the solver.
+ * @param evictions Entries dropped to stay within the memory budget.
+ * @param entries Entries currently held.
+ * @param weightBytes Estimated memory currently held by the entries.
+ */
+public record CacheStats(long hits, long misses, long evictions, int entries, long weightBytes) {
+}
@@ -1,16 +1,30 @@
 package de.eisner.maze.logic.service;
 
+import de.eisner.maze.logic.GenerationOptions;
+import de.eisner.maze.logic.metrics.MazeMetrics;
+import de.eisner.maze.logic.solver.DistanceField;
+import de.eisner.maze.logic.solver.ExitDistances;
+import de.eisner.maze.logic.solver.IncrementalSolver;
+import de.eisner.maze.logic.solver.SolverStrategy;
 import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.MazeSnapshot;
 import de.eisner.maze.model.Point;
 import de.eisner.maze.model.Runner;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Business logic interface providing high-level operations for maze management.
  * Acts as a Facade for generation, pathfinding, and persistence.
+ * All operations are safe to call from many threads at once without a global lock;
+ * mazes passed in must not be modified by other threads while an operation runs, which
+ * {@link MazeSnapshot snapshots} guarantee.
  */
 public interface MazeService {
     /**
@@ -21,6 +35,35 @@ public interface MazeService {
      */
     Optional<Maze> generateMaze(int rows, int cols);
 
+    /**
+     * Generates a reproducible maze. The same seed and dimensions always produce the same maze.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param seed Seed for the random source.
+     * @return An Optional containing the generated Maze.
+     */
+    Optional<Maze> generateMaze(int rows, int cols, long seed);
+
+    /**
+     * Generates a maze with explicit options, e.g. parallel tiled generation for very large grids.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param options Seed and generation mode.
+     * @return An Optional containing the generated Maze.
+     */
+    Optional<Maze> generateMaze(int rows, int cols, GenerationOptions options);
+
+    /**
+     * Generates a reproducible maze with Eller's algorithm straight into a file, row by row.
+     * The maze is never held in memory, so it may be larger than the heap.
+     * @param filePath Target path; the extension selects the format.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param seed Seed for the random source.
+     * @return true if success.
+     */
+    boolean generateToFile(String filePath, int rows, int cols, long seed);
+
     /**
      * Loads a maze from a file.
      * @param filePath Path to the source file.
@@ -29,6 +72,39 @@ public interface MazeService {
      */
     Optional<Maze> load(String filePath) throws FileNotFoundException;
 
+    /**
+     * Opens a binary maze that may be too large for the heap. Its tiles are read from the file while they
+     * are looked at, so moving and rendering around a runner needs memory for the visible part only.
+     * @param filePath Path to an uncompressed binary maze ({@code .mzb}).
+     * @param memoryBudgetBytes Memory the tiles held at once may take.
+     * @return An Optional containing the read-only Maze.
+     * @throws FileNotFoundException If file is missing.
+     */
+    Optional<Maze> openChunked(String filePath, long memoryBudgetBytes) throws FileNotFoundException;
+
+    /**
+     * Loads the maze from a file, or opens it in tiles if it is a binary maze too large to be loaded at once.
+     * @param filePath Path to the file.
+     * @return An Optional containing the Maze.
+     * @throws FileNotFoundException If file is missing.
+     */
+    Optional<Maze> open(String filePath) throws FileNotFoundException;
+
+    /**
+     * Mazes opened in tiles cannot be edited, and operations over the whole grid, like solving, are not offered.
+     * @param maze The maze to check.
+     * @return true if the maze was opened in tiles.
+     */
+    boolean isReadOnly(Maze maze);
+
+    /**
+     * Reads the size of a binary maze file from its header, e.g. to refuse a maze before loading it.
+     * @param filePath Path to the file.
+     * @return The number of cells, or empty for text files.
+     * @throws FileNotFoundException If file is missing.
+     */
+    OptionalLong cellCount(String filePath) throws FileNotFoundException;
+
     /**
      * Saves a maze to a file.
      * @param filePath Target path.
@@ -37,6 +113,14 @@ public interface MazeService {
      */
     boolean save(String filePath, Maze maze);
 
+    /**
+     * Encodes a maze in the compact binary format (2 bits per tile) for sending it to a client.
+     * @param maze The maze to encode.
+     * @param out Receives the encoded maze; it is flushed but not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    void writeBinary(Maze maze, OutputStream out) throws IOException;
+
     /**
      * Attempts to find a solution path between the entry and exit points.
      * @param maze The maze to solve.
@@ -44,15 +128,112 @@ public interface MazeService {
      */
     Optional<Maze> findPath(Maze maze);
 
+    /**
+     * Attempts to find a solution path between the entry and exit points using the given search algorithm.
+     * @param maze The maze to solve.
+     * @param strategy The solver to use, e.g. {@link SolverStrategy#BIDIRECTIONAL_BFS}.
+     * @return An Optional containing the Maze with the path marked.
+     */
+    Optional<Maze> findPath(Maze maze, SolverStrategy strategy);
+
+    /**
+     * Prepares a solver between the entry and exit points that repairs its last solution after edits
+     * instead of solving from scratch.
+     * @param maze The maze to solve. It is edited in place through the returned solver.
+     * @return An Optional containing the solver, or empty if the maze has less than two exits.
+     */
+    Optional<IncrementalSolver> incrementalSolver(Maze maze);
+
+    /**
+     * Starts a player session with the runner on the first exit of the maze and the last exit as target.
+     * The session keeps an immutable snapshot, so later changes to the given maze do not affect it;
+     * passing the same {@link MazeSnapshot} to many sessions shares it without copying.
+     * @param maze The maze to play in.
+     * @return The state of the new session, or empty if the maze has less than two exits.
+     */
+    Optional<SessionState> openSession(Maze maze);
+
+    /**
+     * Moves the runner of a session by one step unless a wall or the border is in the way.
+     * Moves of different sessions never block each other.
+     * @param sessionId The session to move.
+     * @param dRow The change in the row index (delta).
+     * @param dCol The change in the column index (delta).
+     * @return The state after the move, or empty if there is no such session.
+     */
+    Optional<SessionState> move(long sessionId, int dRow, int dCol);
+
+    /**
+     * @param sessionId The session to look up.
+     * @return The current state, or empty if there is no such session.
+     */
+    Optional<SessionState> sessionState(long sessionId);
+
+    /**
+     * @param sessionId The session to look up.
+     * @return The read-only maze of the session, or empty if there is no such session.
+     */
+    Optional<Maze> sessionMaze(long sessionId);
+
+    /**
+     * Ends a session and releases its runner.
+     * @param sessionId The session to end.
+     * @return true if the session existed.
+     */
+    boolean closeSession(long sessionId);
+
+    /**
+     * @return The number of open sessions.
+     */
+    int sessionCount();
+
+    /**
+     * Ends every session that was neither moved nor looked at for the given time,
+     * e.g. because its player disconnected without closing it.
+     * @param maxIdle How long a session may stay unused.
+     * @return The number of sessions ended.
+     */
+    int closeIdleSessions(Duration maxIdle);
+
+    /**
+     * Solutions of equal mazes are cached, so repeated solves skip the search.
+     * @return Hit, miss and eviction counters of that cache.
+     */
+    CacheStats solutionCacheStats();
+
+    /**
+     * Latency histograms and counters of generate, solve, load, save and render calls.
+     * Collection is off until it is enabled on the returned object.
+     * @return The metrics of this service.
+     */
+    MazeMetrics metrics();
+
+    /**
+     * Computes the distance of every cell to the target once, so hints can be looked up on every move.
+     * @param maze The maze to measure.
+     * @param target The cell to measure the distances to, usually the exit.
+     * @return The distance field for the maze.
+     */
+    DistanceField distanceField(Maze maze, Point target);
+
+    /**
+     * Measures the distances between all exits of the maze and the nearest exit of every cell.
+     * @param maze The maze to measure.
+     * @return The all-pairs exit distances and the nearest-exit field.
+     */
+    ExitDistances exitDistances(Maze maze);
+
     /**
      * Renders the maze to the console using predefined tile symbols.
+     * A maze larger than the terminal is shown as a downsampled overview instead.
      * @param maze The maze to display.
      */
     void displayMaze(Maze maze);
 
     /**
      * Renders the maze and overlays the runner's current position.
-     * Clears the console before rendering to create an animation effect.
+     * The first frame clears the console; later frames of the same runner only redraw the cells that changed.
+     * A maze larger than the terminal is shown through a viewport that follows the runner, next to a minimap.
      * @param maze The maze to be displayed.
      * @param runner The runner object containing the current coordinates.
      */
@@ -1,95 +1,273 @@
 package de.eisner.maze.logic.service;
 
+import de.eisner.maze.logic.GenerationOptions;
 import de.eisner.maze.logic.MazeGenerator;
 import de.eisner.maze.logic.PathFinder;
+import de.eisner.maze.logic.metrics.MazeMetrics;
+import de.eisner.maze.logic.metrics.Operation;
+import de.eisner.maze.logic.metrics.OperationSample;
 import de.eisner.maze.logic.io.MazeRepository;
 import de.eisner.maze.logic.io.MazeRepositoryImpl;
+import de.eisner.maze.logic.solver.DistanceField;
+import de.eisner.maze.logic.solver.ExitDistances;
+import de.eisner.maze.logic.solver.IncrementalSolver;
+import de.eisner.maze.logic.solver.SearchStats;
+import de.eisner.maze.logic.solver.SolverStrategy;
 import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.MazeSnapshot;
 import de.eisner.maze.model.Point;
 import de.eisner.maze.model.Runner;
-import de.eisner.maze.ui.TileType;
+import de.eisner.maze.ui.ConsoleRenderer;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 public class MazeServiceImpl implements MazeService {
+    /** Memory budget for cached solutions. */
+    private static final long SOLUTION_CACHE_BYTES = 64L * 1024 * 1024;
+    /** Memory for the tiles of a maze that is too large to be loaded at once. */
+    private static final long TILE_BUDGET_BYTES = 16L * 1024 * 1024;
 
     private final MazeRepository repository;
     private final MazeGenerator generator;
     private final PathFinder pathFinder;
+    private final ConsoleRenderer renderer;
+    private final SolutionCache solutionCache;
+    private final MazeMetrics metrics;
+    private final SessionRegistry sessions;
 
     public MazeServiceImpl() {
+        this(SOLUTION_CACHE_BYTES);
+    }
+
+    /**
+     * @param solutionCacheBytes Memory budget for cached solutions.
+     */
+    MazeServiceImpl(long solutionCacheBytes) {
         this.generator = new MazeGenerator();
         this.repository = new MazeRepositoryImpl();
         this.pathFinder = new PathFinder();
+        this.renderer = new ConsoleRenderer();
+        this.solutionCache = new SolutionCache(solutionCacheBytes);
+        this.metrics = new MazeMetrics();
+        this.sessions = new SessionRegistry();
     }
 
     @Override
     public Optional<Maze> generateMaze(int rows, int cols) {
+        OperationSample sample = metrics.start(Operation.GENERATE);
         Maze maze = generator.generate(rows, cols);
+        sample.stop(rows, cols);
         if (maze == null) {
             return Optional.empty();
         }
         return Optional.of(maze);
     }
 
+    @Override
+    public Optional<Maze> generateMaze(int rows, int cols, long seed) {
+        OperationSample sample = metrics.start(Operation.GENERATE);
+        Maze maze = generator.generate(rows, cols, seed);
+        sample.stop(rows, cols);
+        return Optional.ofNullable(maze);
+    }
+
+    @Override
+    public Optional<Maze> generateMaze(int rows, int cols, GenerationOptions options) {
+        OperationSample sample = metrics.start(Operation.GENERATE);
+        Maze maze = generator.generate(rows, cols, options);
+        sample.stop(rows, cols);
+        return Optional.ofNullable(maze);
+    }
+
+    @Override
+    public boolean generateToFile(String filePath, int rows, int cols, long seed) {
+        OperationSample sample = metrics.start(Operation.GENERATE);
+        boolean saved = repository.save(filePath, generator.rowSource(rows, cols, seed));
+        sample.stop(rows, cols);
+        return saved;
+    }
+
     @Override
     public Optional<Maze> load(String filePath) throws FileNotFoundException {
-        return repository.load(filePath);
+        OperationSample sample = metrics.start(Operation.LOAD);
+        Optional<Maze> maze = repository.load(filePath);
+        sample.stop(maze.map(Maze::rows).orElse(0), maze.map(Maze::cols).orElse(0));
+        return maze;
+    }
+
+    @Override
+    public Optional<Maze> openChunked(String filePath, long memoryBudgetBytes) throws FileNotFoundException {
+        OperationSample sample = metrics.start(Operation.LOAD);
+        Optional<Maze> maze = repository.openChunked(filePath, memoryBudgetBytes);
+        sample.stop(maze.map(Maze::rows).orElse(0), maze.map(Maze::cols).orElse(0));
+        return maze;
+    }
+
+    @Override
+    public Optional<Maze> open(String filePath) throws FileNotFoundException {
+        OperationSample sample = metrics.start(Operation.LOAD);
+        Optional<Maze> maze = repository.open(filePath, TILE_BUDGET_BYTES);
+        sample.stop(maze.map(Maze::rows).orElse(0), maze.map(Maze::cols).orElse(0));
+        return maze;
+    }
+
+    @Override
+    public boolean isReadOnly(Maze maze) {
+        return repository.isChunked(maze);
+    }
+
+    @Override
+    public OptionalLong cellCount(String filePath) throws FileNotFoundException {
+        return repository.cellCount(filePath);
     }
 
     @Override
     public boolean save(String filePath, Maze maze) {
-        return repository.save(filePath, maze);
+        OperationSample sample = metrics.start(Operation.SAVE);
+        boolean saved = repository.save(filePath, maze);
+        sample.stop(maze.rows(), maze.cols());
+        return saved;
+    }
+
+    @Override
+    public void writeBinary(Maze maze, OutputStream out) throws IOException {
+        repository.writeBinary(maze, out);
     }
 
     @Override
     public Optional<Maze> findPath(Maze maze) {
-        return pathFinder.findPath(maze);
+        return findPath(maze, SolverStrategy.BFS);
     }
 
+    /**
+     * Answers repeated solves of equal mazes from the solution cache.
+     * Callers always receive their own copy, so they cannot alter the cached maze.
+     * Cached answers are measured as solves without search effort.
+     */
     @Override
-    public void displayMaze(Maze maze) {
-        for (int[] row : maze.grid()) {
-            for (int c : row) {
-                System.out.print(c == 0
-                        ? TileType.PASS
-                        : c == 1
-                        ? TileType.WALL
-                        : TileType.PATH);
-            }
-            System.out.println();
+    public Optional<Maze> findPath(Maze maze, SolverStrategy strategy) {
+        OperationSample sample = metrics.start(Operation.SOLVE);
+        List<Point> exits = pathFinder.getAllExits(maze);
+        if (exits.size() < 2) {
+            sample.stop(maze.rows(), maze.cols());
+            return Optional.empty();
         }
+        Point from = exits.getFirst();
+        Point to = exits.getLast();
+
+        var key = SolutionCache.keyOf(maze, from.row() * maze.cols() + from.col(),
+                to.row() * maze.cols() + to.col(), strategy);
+        SolutionCache.Entry cached = solutionCache.lookup(key);
+        Optional<Maze> solved;
+        SearchStats search = null;
+        if (cached != null) {
+            solved = cached.solved();
+        } else {
+            search = sample.isActive() ? new SearchStats() : null;
+            solved = pathFinder.findPath(maze, from, to, strategy, search);
+            solutionCache.put(key, solved);
+        }
+        Optional<Maze> copy = solved.map(Maze::copy);
+        sample.stop(maze.rows(), maze.cols(), search);
+        return copy;
     }
 
     @Override
-    public void displayMazeWithRunner(Maze maze, Runner runner) {
-        // Clear console (ANSI escape codes)
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
-
-        int[][] grid = maze.grid();
-        for (int r = 0; r < grid.length; r++) {
-            for (int c = 0; c < grid[0].length; c++) {
-                if (r == runner.getRow() && c == runner.getCol()) {
-                    System.out.print(TileType.RUNNER);
-                } else {
-                    int val = grid[r][c];
-                    System.out.print(val == 0
-                            ? TileType.PASS
-                            : val == 1
-                            ? TileType.WALL
-                            : TileType.PATH);
-                }
-            }
-            System.out.println();
+    public Optional<IncrementalSolver> incrementalSolver(Maze maze) {
+        List<Point> exits = pathFinder.getAllExits(maze);
+        if (exits.size() < 2) {
+            return Optional.empty();
+        }
+
+        int width = maze.cols();
+        Point from = exits.getFirst();
+        Point to = exits.getLast();
+        return Optional.of(new IncrementalSolver(maze, from.row() * width + from.col(), to.row() * width + to.col()));
+    }
+
+    @Override
+    public Optional<SessionState> openSession(Maze maze) {
+        MazeSnapshot snapshot = MazeSnapshot.of(maze);
+        List<Point> exits = pathFinder.getAllExits(snapshot);
+        if (exits.size() < 2) {
+            return Optional.empty();
         }
+        return Optional.of(sessions.open(snapshot, exits.getFirst(), exits.getLast()));
+    }
+
+    @Override
+    public Optional<SessionState> move(long sessionId, int dRow, int dCol) {
+        return sessions.move(sessionId, dRow, dCol);
+    }
+
+    @Override
+    public Optional<SessionState> sessionState(long sessionId) {
+        return sessions.state(sessionId);
+    }
+
+    @Override
+    public Optional<Maze> sessionMaze(long sessionId) {
+        return sessions.maze(sessionId);
+    }
+
+    @Override
+    public boolean closeSession(long sessionId) {
+        return sessions.close(sessionId);
+    }
+
+    @Override
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public int closeIdleSessions(Duration maxIdle) {
+        return sessions.closeIdle(maxIdle.toNanos());
+    }
+
+    @Override
+    public CacheStats solutionCacheStats() {
+        return solutionCache.stats();
+    }
+
+    @Override
+    public MazeMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public DistanceField distanceField(Maze maze, Point target) {
+        return DistanceField.towards(maze, target);
+    }
+
+    @Override
+    public ExitDistances exitDistances(Maze maze) {
+        return ExitDistances.compute(maze, pathFinder.getAllExits(maze));
+    }
+
+    @Override
+    public void displayMaze(Maze maze) {
+        OperationSample sample = metrics.start(Operation.RENDER);
+        renderer.renderMaze(maze);
+        sample.stop(maze.rows(), maze.cols());
+    }
+
+    @Override
+    public void displayMazeWithRunner(Maze maze, Runner runner) {
+        OperationSample sample = metrics.start(Operation.RENDER);
+        renderer.renderWithRunner(maze, runner);
+        sample.stop(maze.rows(), maze.cols());
     }
 
     @Override
     public List<Point> getExits(Maze maze) {
-        return pathFinder.getAllExits(maze.grid());
+        return pathFinder.getAllExits(maze);
     }
 
     @Override
@@ -100,6 +278,7 @@ public class MazeServiceImpl implements MazeService {
                 "\033[34m ' . ' \n.  * .\n ' . ' \033[0m"
         };
 
+        renderer.reset();
         for (String frame : frames) {
             // Clear console
             System.out.print("\033[2J\033[2;1H");
@@ -0,0 +1,118 @@
+package de.eisner.maze.logic.service;
+
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.MazeSnapshot;
+import de.eisner.maze.model.Point;
+import de.eisner.maze.model.Runner;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Player sessions of many concurrent users, each a runner in its own maze snapshot.
+ * <p>
+ * Sessions are looked up in a {@link ConcurrentHashMap}, whose reads never lock and whose writes lock
+ * a single bin, and every move only locks its own session. Moves of different sessions therefore never
+ * wait for each other; only moves of the same session are serialized. The mazes are immutable
+ * {@link MazeSnapshot snapshots}, so any number of sessions can share and read one maze without copying it.
+ * Every access stamps the session, so sessions abandoned by their players can be ended after a while.
+ */
+class SessionRegistry {
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * @param maze The maze to play in.
+     * @param start Where the runner starts.
+     * @param target The exit the runner has to reach.
+     * @return The state of the new session.
+     */
+    SessionState open(MazeSnapshot maze, Point start, Point target) {
+        Session session = new Session(nextId.getAndIncrement(), maze, start, target);
+        sessions.put(session.id, session);
+        return session.state();
+    }
+
+    Optional<SessionState> move(long id, int dRow, int dCol) {
+        return session(id).map(session -> session.move(dRow, dCol));
+    }
+
+    Optional<SessionState> state(long id) {
+        return session(id).map(Session::state);
+    }
+
+    Optional<Maze> maze(long id) {
+        return session(id).map(session -> session.maze);
+    }
+
+    boolean close(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Removes every session that was not accessed for longer than the given time.
+     * @return The number of removed sessions.
+     */
+    int closeIdle(long maxIdleNanos) {
+        long now = System.nanoTime();
+        int closed = 0;
+        for (Session session : sessions.values()) {
+            if (now - session.lastUsed > maxIdleNanos && sessions.remove(session.id, session)) {
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    private Optional<Session> session(long id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            return Optional.empty();
+        }
+        session.lastUsed = System.nanoTime();
+        return Optional.of(session);
+    }
+
+    /**
+     * The runner is mutable and guarded by the session's monitor; the maze needs no guard.
+     */
+    private static final class Session {
+        private final long id;
+        private final MazeSnapshot maze;
+        private final Runner runner;
+        private final Point target;
+        private long moves;
+        private boolean moved;
+        /** {@link System#nanoTime()} of the last access; written without the monitor. */
+        private volatile long lastUsed = System.nanoTime();
+
+        private Session(long id, MazeSnapshot maze, Point start, Point target) {
+            this.id = id;
+            this.maze = maze;
+            this.runner = new Runner(start);
+            this.target = target;
+        }
+
+        private synchronized SessionState move(int dRow, int dCol) {
+            int row = runner.getRow();
+            int col = runner.getCol();
+            runner.move(dRow, dCol, maze);
+            moved = runner.getRow() != row || runner.getCol() != col;
+            if (moved) {
+                moves++;
+            }
+            return state();
+        }
+
+        private synchronized SessionState state() {
+            int row = runner.getRow();
+            int col = runner.getCol();
+            return new SessionState(id, row, col, moves, row == target.row() && col == target.col(), moved);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package de.eisner.maze.logic.service;
+
+/**
+ * Snapshot of one player session.
+ * @param id The session id.
+ * @param row Current row of the runner.
+ * @param col Current column of the runner.
+ * @param moves Successful moves so far; moves into walls are not counted.
+ * @param atExit Whether the runner stands on the target exit.
+ * @param moved Whether the latest move of the session changed the position, so a client that knows
+ *              the direction it asked for can follow the runner without receiving its coordinates.
+ */
+public record SessionState(long id, int row, int col, long moves, boolean atExit, boolean moved) {
+}
@@ -0,0 +1,162 @@
+package de.eisner.maze.logic.service;
+
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least-recently-used cache of solved mazes, bounded by estimated memory instead of entry count.
+ * Entries are keyed by the content hash of the maze and the chosen endpoints and strategy,
+ * so equal mazes share a solution regardless of which object they are held in.
+ * Unsolvable mazes are cached as well.
+ * <p>
+ * The cache is split into {@value #STRIPES} independently locked stripes, so concurrent solves of different
+ * mazes rarely wait for each other. The memory budget is shared: one counter tracks the weight of all stripes,
+ * and a put that exceeds the budget evicts from its own stripe first and then from the others, one lock at a
+ * time. Any solution up to the whole budget can therefore be cached.
+ * Recency is tracked per stripe, which evicts approximately, not strictly, least-recently-used entries.
+ */
+class SolutionCache {
+    /** Fixed per-entry cost: key, map node and maze object headers. */
+    private static final long ENTRY_OVERHEAD = 128;
+    private static final int STRIPES = 8;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long maxWeightBytes;
+    private final AtomicLong weightBytes = new AtomicLong();
+
+    /**
+     * @param maxWeightBytes Memory budget for all cached solutions.
+     */
+    SolutionCache(long maxWeightBytes) {
+        this.maxWeightBytes = maxWeightBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Identifies one solve: maze content, endpoints as flat indices and the solver.
+     */
+    record Key(int rows, int cols, long contentHash, int start, int end, SolverStrategy strategy) {
+    }
+
+    static Key keyOf(Maze maze, int start, int end, SolverStrategy strategy) {
+        return new Key(maze.rows(), maze.cols(), maze.contentHash(), start, end, strategy);
+    }
+
+    /**
+     * The cached result of one solve.
+     * @param path The maze with the path marked, or null if the maze cannot be solved.
+     */
+    record Entry(Maze path) {
+        Optional<Maze> solved() {
+            return Optional.ofNullable(path);
+        }
+    }
+
+    /**
+     * @return The cached result, or null if the solve is not cached.
+     */
+    Entry lookup(Key key) {
+        return stripeOf(key).lookup(key);
+    }
+
+    void put(Key key, Optional<Maze> solved) {
+        long weight = weightOf(key);
+        if (weight > maxWeightBytes) {
+            return;
+        }
+
+        int first = stripeIndex(key);
+        if (stripes[first].put(key, new Entry(solved.orElse(null)))) {
+            weightBytes.addAndGet(weight);
+        }
+        // Never hold two stripe locks at once; the new entry is kept unless another put evicts it
+        for (int i = 0; weightBytes.get() > maxWeightBytes && i < STRIPES; ) {
+            if (!stripes[(first + i) & (STRIPES - 1)].evictEldest(key)) {
+                i++;
+            }
+        }
+    }
+
+    CacheStats stats() {
+        long hits = 0, misses = 0, evictions = 0;
+        int entries = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+                misses += stripe.misses;
+                evictions += stripe.evictions;
+                entries += stripe.entries.size();
+            }
+        }
+        return new CacheStats(hits, misses, evictions, entries, weightBytes.get());
+    }
+
+    private Stripe stripeOf(Key key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private static int stripeIndex(Key key) {
+        int hash = Long.hashCode(key.contentHash()) * 31 + key.start() * 17 + key.end();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * A solved maze holds a wall and a path bitset, i.e. two bits per tile.
+     */
+    private static long weightOf(Key key) {
+        return ENTRY_OVERHEAD + ((long) key.rows() * key.cols() + 3) / 4;
+    }
+
+    /**
+     * One independently locked part of the cache, in least-recently-used order.
+     */
+    private final class Stripe {
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private synchronized Entry lookup(Key key) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return entry;
+        }
+
+        /**
+         * @return true if the key was not cached yet, so its weight has to be added.
+         */
+        private synchronized boolean put(Key key, Entry entry) {
+            return entries.put(key, entry) == null;
+        }
+
+        /**
+         * Removes the least recently used entry other than the given one.
+         * @return false if the stripe holds no other entry.
+         */
+        private synchronized boolean evictEldest(Key keep) {
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (eldest.hasNext()) {
+                Key evicted = eldest.next().getKey();
+                if (!evicted.equals(keep)) {
+                    eldest.remove();
+                    weightBytes.addAndGet(-weightOf(evicted));
+                    evictions++;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+import java.util.Arrays;
+
+/**
+ * A* search with the Manhattan distance as heuristic.
+ * The heuristic is consistent on a 4-connected grid with unit steps, so the first time the end
+ * is taken from the open set its path is the shortest one.
+ * Open entries are packed into longs ({@code f << 32 | cell}) and kept in a primitive binary heap;
+ * outdated entries are skipped when polled instead of being updated in place.
+ */
+public class AStarSolver implements SolverStrategy {
+
+    @Override
+    public int[] solve(Maze maze, int start, int end) {
+        return solve(maze, start, end, null);
+    }
+
+    @Override
+    public int[] solve(Maze maze, int start, int end, SearchStats stats) {
+        int height = maze.rows();
+        int width = maze.cols();
+        int endRow = end / width;
+        int endCol = end % width;
+
+        int[] cost = new int[height * width];
+        Arrays.fill(cost, Trails.UNVISITED);
+        int[] comeFrom = new int[height * width];
+        LongHeap open = new LongHeap();
+
+        cost[start] = 0;
+        comeFrom[start] = start;
+        open.push(entry(heuristic(start, width, endRow, endCol), start));
+
+        long expanded = 0;
+        while (!open.isEmpty()) {
+            long entry = open.pop();
+            int current = (int) entry;
+            if ((int) (entry >>> 32) > cost[current] + heuristic(current, width, endRow, endCol)) {
+                continue; // outdated entry
+            }
+
+            expanded++;
+            if (current == end) {
+                return BfsSolver.report(stats, expanded, open.peakSize(), Trails.trace(comeFrom, start, end));
+            }
+
+            int row = current / width;
+            int col = current - row * width;
+            int nextCost = cost[current] + 1;
+
+            if (row + 1 < height && !maze.isWall(current + width)) {
+                relax(current, current + width, nextCost, cost, comeFrom, open, width, endRow, endCol);
+            }
+            if (row > 0 && !maze.isWall(current - width)) {
+                relax(current, current - width, nextCost, cost, comeFrom, open, width, endRow, endCol);
+            }
+            if (col + 1 < width && !maze.isWall(current + 1)) {
+                relax(current, current + 1, nextCost, cost, comeFrom, open, width, endRow, endCol);
+            }
+            if (col > 0 && !maze.isWall(current - 1)) {
+                relax(current, current - 1, nextCost, cost, comeFrom, open, width, endRow, endCol);
+            }
+        }
+
+        return BfsSolver.report(stats, expanded, open.peakSize(), Trails.NO_PATH);
+    }
+
+    private void relax(int current, int neighbor, int nextCost, int[] cost, int[] comeFrom,
+                       LongHeap open, int width, int endRow, int endCol) {
+        if (cost[neighbor] == Trails.UNVISITED || nextCost < cost[neighbor]) {
+            cost[neighbor] = nextCost;
+            comeFrom[neighbor] = current;
+            open.push(entry(nextCost + heuristic(neighbor, width, endRow, endCol), neighbor));
+        }
+    }
+
+    private static int heuristic(int cell, int width, int endRow, int endCol) {
+        int row = cell / width;
+        return Math.abs(row - endRow) + Math.abs(cell - row * width - endCol);
+    }
+
+    private static long entry(int priority, int cell) {
+        return ((long) priority << 32) | (cell & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,73 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-First Search over flat cell indices.
+ * Every cell is enqueued at most once, so a queue of {@code height * width} slots never overflows.
+ */
+public class BfsSolver implements SolverStrategy {
+
+    @Override
+    public int[] solve(Maze maze, int start, int end) {
+        return solve(maze, start, end, null);
+    }
+
+    @Override
+    public int[] solve(Maze maze, int start, int end, SearchStats stats) {
+        int height = maze.rows();
+        int width = maze.cols();
+
+        int[] comeFrom = new int[height * width];
+        Arrays.fill(comeFrom, Trails.UNVISITED);
+        int[] queue = new int[height * width];
+        int head = 0;
+        int tail = 0;
+
+        int peak = 0;
+
+        queue[tail++] = start;
+        comeFrom[start] = start;
+
+        while (head < tail) {
+            peak = Math.max(peak, tail - head);
+            int current = queue[head++];
+
+            if (current == end) {
+                return report(stats, head, peak, Trails.trace(comeFrom, start, end));
+            }
+
+            int row = current / width;
+            int col = current - row * width;
+
+            // down, up, right, left
+            if (row + 1 < height && !maze.isWall(current + width) && comeFrom[current + width] == Trails.UNVISITED) {
+                comeFrom[current + width] = current;
+                queue[tail++] = current + width;
+            }
+            if (row > 0 && !maze.isWall(current - width) && comeFrom[current - width] == Trails.UNVISITED) {
+                comeFrom[current - width] = current;
+                queue[tail++] = current - width;
+            }
+            if (col + 1 < width && !maze.isWall(current + 1) && comeFrom[current + 1] == Trails.UNVISITED) {
+                comeFrom[current + 1] = current;
+                queue[tail++] = current + 1;
+            }
+            if (col > 0 && !maze.isWall(current - 1) && comeFrom[current - 1] == Trails.UNVISITED) {
+                comeFrom[current - 1] = current;
+                queue[tail++] = current - 1;
+            }
+        }
+
+        return report(stats, head, peak, Trails.NO_PATH);
+    }
+
+    static int[] report(SearchStats stats, long expanded, int peakFrontier, int[] path) {
+        if (stats != null) {
+            stats.record(expanded, peakFrontier, path);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,167 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+import java.util.Arrays;
+
+/**
+ * Bidirectional Breadth-First Search.
+ * Grows one frontier from the start and one from the end, always expanding the smaller one level by level.
+ * Once a level touches the other side, the shortest connection found in that level is the shortest path.
+ * On perfect mazes this expands roughly half the cells a plain BFS would.
+ */
+public class BidirectionalBfsSolver implements SolverStrategy {
+
+    @Override
+    public int[] solve(Maze maze, int start, int end) {
+        return solve(maze, start, end, null);
+    }
+
+    /**
+     * The frontier size is sampled once per level, when both queues hold exactly their open cells.
+     */
+    @Override
+    public int[] solve(Maze maze, int start, int end, SearchStats stats) {
+        if (start == end) {
+            return BfsSolver.report(stats, 0, 1, new int[]{start});
+        }
+
+        int size = maze.rows() * maze.cols();
+        Frontier forward = new Frontier(size, start);
+        Frontier backward = new Frontier(size, end);
+        Meeting meeting = new Meeting();
+
+        int peak = 0;
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            peak = Math.max(peak, forward.size() + backward.size());
+            if (forward.size() <= backward.size()) {
+                expandLevel(maze, forward, backward, true, meeting);
+            } else {
+                expandLevel(maze, backward, forward, false, meeting);
+            }
+
+            if (meeting.length != Integer.MAX_VALUE) {
+                return BfsSolver.report(stats, forward.head + backward.head, peak,
+                        join(maze, forward, backward, meeting));
+            }
+        }
+
+        return BfsSolver.report(stats, forward.head + backward.head, peak, Trails.NO_PATH);
+    }
+
+    private void expandLevel(Maze maze, Frontier side, Frontier other, boolean isForward, Meeting meeting) {
+        int height = maze.rows();
+        int width = maze.cols();
+        int levelEnd = side.tail;
+
+        while (side.head < levelEnd) {
+            int current = side.queue[side.head++];
+            int row = current / width;
+            int col = current - row * width;
+
+            if (row + 1 < height && !maze.isWall(current + width)) {
+                visit(current, current + width, side, other, isForward, meeting);
+            }
+            if (row > 0 && !maze.isWall(current - width)) {
+                visit(current, current - width, side, other, isForward, meeting);
+            }
+            if (col + 1 < width && !maze.isWall(current + 1)) {
+                visit(current, current + 1, side, other, isForward, meeting);
+            }
+            if (col > 0 && !maze.isWall(current - 1)) {
+                visit(current, current - 1, side, other, isForward, meeting);
+            }
+        }
+    }
+
+    private void visit(int current, int neighbor, Frontier side, Frontier other, boolean isForward, Meeting meeting) {
+        if (other.dist[neighbor] != Trails.UNVISITED) {
+            int length = side.dist[current] + 1 + other.dist[neighbor];
+            if (length < meeting.length) {
+                meeting.length = length;
+                meeting.forwardCell = isForward ? current : neighbor;
+                meeting.backwardCell = isForward ? neighbor : current;
+            }
+        }
+
+        if (side.dist[neighbor] == Trails.UNVISITED) {
+            side.dist[neighbor] = side.dist[current] + 1;
+            side.queue[side.tail++] = neighbor;
+        }
+    }
+
+    /**
+     * Builds the path by walking down the distance values of both frontiers from the meeting edge.
+     */
+    private int[] join(Maze maze, Frontier forward, Frontier backward, Meeting meeting) {
+        int[] path = new int[meeting.length + 1];
+
+        int step = meeting.forwardCell;
+        for (int i = forward.dist[step]; i >= 0; i--) {
+            path[i] = step;
+            if (i > 0) {
+                step = descend(maze, forward.dist, step);
+            }
+        }
+
+        step = meeting.backwardCell;
+        for (int i = meeting.length - backward.dist[step]; i < path.length; i++) {
+            path[i] = step;
+            if (i < path.length - 1) {
+                step = descend(maze, backward.dist, step);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Finds a passable neighbor that is one step closer to the origin of the given distance array.
+     */
+    private int descend(Maze maze, int[] dist, int cell) {
+        int height = maze.rows();
+        int width = maze.cols();
+        int row = cell / width;
+        int col = cell - row * width;
+        int target = dist[cell] - 1;
+
+        if (row + 1 < height && !maze.isWall(cell + width) && dist[cell + width] == target) return cell + width;
+        if (row > 0 && !maze.isWall(cell - width) && dist[cell - width] == target) return cell - width;
+        if (col + 1 < width && !maze.isWall(cell + 1) && dist[cell + 1] == target) return cell + 1;
+        return cell - 1;
+    }
+
+    /**
+     * Search state of one direction: distances from its origin and the BFS queue.
+     */
+    private static final class Frontier {
+        private final int[] dist;
+        private final int[] queue;
+        private int head;
+        private int tail;
+
+        private Frontier(int size, int origin) {
+            this.dist = new int[size];
+            Arrays.fill(dist, Trails.UNVISITED);
+            this.queue = new int[size];
+            dist[origin] = 0;
+            queue[tail++] = origin;
+        }
+
+        private boolean isEmpty() {
+            return head == tail;
+        }
+
+        private int size() {
+            return tail - head;
+        }
+    }
+
+    /**
+     * Shortest connection between both frontiers found so far.
+     */
+    private static final class Meeting {
+        private int length = Integer.MAX_VALUE;
+        private int forwardCell;
+        private int backwardCell;
+    }
+}
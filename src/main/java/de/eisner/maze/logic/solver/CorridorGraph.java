@@ -0,0 +1,281 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+import java.util.Arrays;
+
+/**
+ * Condensed view of a maze in which only decision points are nodes: junctions, dead ends and open border
+ * cells (the exits). Every corridor between two nodes is collapsed into a single weighted edge.
+ * Edges store their first step instead of their cells, so the graph needs a few ints per node and
+ * one bit per cell; the cells of a corridor are walked again only for the edges on the final path.
+ * <p>
+ * A graph describes the maze it was built from. It stays valid for any maze with the same content,
+ * so it can be built once and reused for many solves.
+ */
+public final class CorridorGraph {
+    private static final int DOWN = 0;
+    private static final int UP = 1;
+    private static final int RIGHT = 2;
+    private static final int LEFT = 3;
+
+    private final int rows;
+    private final int cols;
+    private final long contentHash;
+    /** One bit per cell, set for cells that are nodes. */
+    private final long[] nodeBits;
+    /** Cell of every node in ascending order, so node ids can be found by binary search. */
+    private final int[] nodes;
+    /** Edges of node {@code n} are stored at {@code edgeOffsets[n] .. edgeOffsets[n + 1] - 1}. */
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final int[] edgeWeights;
+    private final byte[] edgeDirections;
+
+    private CorridorGraph(int rows, int cols, long contentHash, long[] nodeBits, int[] nodes,
+                          int[] edgeOffsets, int[] edgeTargets, int[] edgeWeights, byte[] edgeDirections) {
+        this.rows = rows;
+        this.cols = cols;
+        this.contentHash = contentHash;
+        this.nodeBits = nodeBits;
+        this.nodes = nodes;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeWeights = edgeWeights;
+        this.edgeDirections = edgeDirections;
+    }
+
+    /**
+     * Builds the graph in two passes: the first finds the nodes, the second walks every corridor leaving them.
+     * @param maze The maze to condense.
+     * @return The graph of the maze.
+     */
+    public static CorridorGraph of(Maze maze) {
+        int rows = maze.rows();
+        int cols = maze.cols();
+        int cells = rows * cols;
+
+        long[] nodeBits = new long[(cells + 63) >>> 6];
+        int[] nodes = new int[64];
+        int nodeCount = 0;
+        int edgeSlots = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (maze.isWall(cell)) continue;
+            int degree = degree(maze, cell);
+            int row = cell / cols;
+            int col = cell - row * cols;
+            boolean border = row == 0 || col == 0 || row == rows - 1 || col == cols - 1;
+            if (degree != 2 || border) {
+                nodeBits[cell >>> 6] |= 1L << cell;
+                if (nodeCount == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, nodeCount * 2);
+                }
+                nodes[nodeCount++] = cell;
+                edgeSlots += degree;
+            }
+        }
+        nodes = Arrays.copyOf(nodes, nodeCount);
+
+        int[] edgeOffsets = new int[nodeCount + 1];
+        int[] edgeTargets = new int[edgeSlots];
+        int[] edgeWeights = new int[edgeSlots];
+        byte[] edgeDirections = new byte[edgeSlots];
+        int edges = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            edgeOffsets[node] = edges;
+            int from = nodes[node];
+            for (int direction = DOWN; direction <= LEFT; direction++) {
+                int previous = from;
+                int current = step(maze, from, direction);
+                if (current < 0) continue;
+
+                int weight = 1;
+                while ((nodeBits[current >>> 6] & (1L << current)) == 0) {
+                    int next = corridorNext(maze, current, previous);
+                    previous = current;
+                    current = next;
+                    weight++;
+                }
+                if (current == from) continue; // corridor loop back to the same node
+
+                edgeTargets[edges] = Arrays.binarySearch(nodes, current);
+                edgeWeights[edges] = weight;
+                edgeDirections[edges] = (byte) direction;
+                edges++;
+            }
+        }
+        edgeOffsets[nodeCount] = edges;
+
+        return new CorridorGraph(rows, cols, maze.contentHash(), nodeBits, nodes, edgeOffsets,
+                Arrays.copyOf(edgeTargets, edges), Arrays.copyOf(edgeWeights, edges),
+                Arrays.copyOf(edgeDirections, edges));
+    }
+
+    /**
+     * @return The number of junctions, dead ends and exits.
+     */
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * @return The number of directed corridor edges (every corridor is stored once per direction).
+     */
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    /**
+     * @param maze A maze to check.
+     * @return true if the graph was built from a maze with the same dimensions and content.
+     */
+    public boolean describes(Maze maze) {
+        return maze.rows() == rows && maze.cols() == cols && maze.contentHash() == contentHash;
+    }
+
+    /**
+     * Searches a shortest path with A* over the nodes and expands the chosen corridors back into cells.
+     * Dead ends other than the target are never entered. Start or end cells in the middle of a corridor
+     * are not nodes; such requests are answered by a plain BFS over the grid.
+     * @param maze A maze the graph {@link #describes(Maze) describes}, used to walk the chosen corridors.
+     * @param start Flat index of the first cell.
+     * @param end Flat index of the last cell.
+     * @return The flat indices of the path from start to end, or an empty array if no path exists.
+     */
+    public int[] solve(Maze maze, int start, int end) {
+        return solve(maze, start, end, null);
+    }
+
+    /**
+     * Searches like {@link #solve(Maze, int, int)} and counts the expanded nodes and the peak size of the open set.
+     * @param stats Receives the counters of this search; may be null.
+     */
+    public int[] solve(Maze maze, int start, int end, SearchStats stats) {
+        int source = nodeOf(start);
+        int target = nodeOf(end);
+        if (source < 0 || target < 0) {
+            return SolverStrategy.BFS.solve(maze, start, end, stats);
+        }
+
+        int endRow = end / cols;
+        int endCol = end % cols;
+        int[] cost = new int[nodes.length];
+        Arrays.fill(cost, Trails.UNVISITED);
+        int[] parentEdge = new int[nodes.length];
+        int[] parentNode = new int[nodes.length];
+        LongHeap open = new LongHeap();
+
+        cost[source] = 0;
+        parentNode[source] = source;
+        open.push(entry(heuristic(start, endRow, endCol), source));
+
+        long expanded = 0;
+        while (!open.isEmpty()) {
+            long entry = open.pop();
+            int current = (int) entry;
+            if ((int) (entry >>> 32) > cost[current] + heuristic(nodes[current], endRow, endCol)) {
+                continue; // outdated entry
+            }
+            expanded++;
+            if (current == target) {
+                return BfsSolver.report(stats, expanded, open.peakSize(),
+                        expand(maze, parentEdge, parentNode, source, target, cost[target]));
+            }
+
+            for (int edge = edgeOffsets[current]; edge < edgeOffsets[current + 1]; edge++) {
+                int next = edgeTargets[edge];
+                if (next != target && edgeOffsets[next + 1] - edgeOffsets[next] == 1) {
+                    continue; // dead end
+                }
+                int nextCost = cost[current] + edgeWeights[edge];
+                if (cost[next] == Trails.UNVISITED || nextCost < cost[next]) {
+                    cost[next] = nextCost;
+                    parentEdge[next] = edge;
+                    parentNode[next] = current;
+                    open.push(entry(nextCost + heuristic(nodes[next], endRow, endCol), next));
+                }
+            }
+        }
+
+        return BfsSolver.report(stats, expanded, open.peakSize(), Trails.NO_PATH);
+    }
+
+    /**
+     * Walks the corridors of the found node chain from the source to the target.
+     */
+    private int[] expand(Maze maze, int[] parentEdge, int[] parentNode, int source, int target, int length) {
+        int[] path = new int[length + 1];
+        int filled = length;
+        for (int node = target; node != source; node = parentNode[node]) {
+            // walk the corridor forwards from the parent, then copy its cells into place from the back
+            int edge = parentEdge[node];
+            int previous = nodes[parentNode[node]];
+            int current = step(maze, previous, edgeDirections[edge]);
+            int first = filled - edgeWeights[edge] + 1;
+            for (int i = first; i <= filled; i++) {
+                path[i] = current;
+                if (i < filled) {
+                    int next = corridorNext(maze, current, previous);
+                    previous = current;
+                    current = next;
+                }
+            }
+            filled = first - 1;
+        }
+        path[0] = nodes[source];
+        return path;
+    }
+
+    private int nodeOf(int cell) {
+        if (cell < 0 || cell >= rows * cols || (nodeBits[cell >>> 6] & (1L << cell)) == 0) {
+            return -1;
+        }
+        return Arrays.binarySearch(nodes, cell);
+    }
+
+    private int heuristic(int cell, int endRow, int endCol) {
+        int row = cell / cols;
+        return Math.abs(row - endRow) + Math.abs(cell - row * cols - endCol);
+    }
+
+    private static long entry(int priority, int node) {
+        return ((long) priority << 32) | (node & 0xFFFFFFFFL);
+    }
+
+    private static int degree(Maze maze, int cell) {
+        int degree = 0;
+        for (int direction = DOWN; direction <= LEFT; direction++) {
+            if (step(maze, cell, direction) >= 0) degree++;
+        }
+        return degree;
+    }
+
+    /**
+     * @return The open neighbor of a corridor cell that is not the cell it was entered from.
+     */
+    private static int corridorNext(Maze maze, int cell, int previous) {
+        for (int direction = DOWN; direction <= LEFT; direction++) {
+            int next = step(maze, cell, direction);
+            if (next >= 0 && next != previous) {
+                return next;
+            }
+        }
+        throw new IllegalStateException("Corridor ends without a node at cell " + cell);
+    }
+
+    /**
+     * @return The open neighbor of the cell in the given direction, or -1 if it is a wall or outside the maze.
+     */
+    private static int step(Maze maze, int cell, int direction) {
+        int cols = maze.cols();
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int next = switch (direction) {
+            case DOWN -> row + 1 < maze.rows() ? cell + cols : -1;
+            case UP -> row > 0 ? cell - cols : -1;
+            case RIGHT -> col + 1 < cols ? cell + 1 : -1;
+            default -> col > 0 ? cell - 1 : -1;
+        };
+        return next >= 0 && !maze.isWall(next) ? next : -1;
+    }
+}
@@ -0,0 +1,35 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+/**
+ * Solves on the {@link CorridorGraph} of a maze instead of on its cells.
+ * The graph of the last solved maze is kept and reused as long as the next maze has the same content,
+ * so repeated solves of one maze only pay for the search over its junctions.
+ */
+public class CorridorSolver implements SolverStrategy {
+    private volatile CorridorGraph lastGraph;
+
+    @Override
+    public int[] solve(Maze maze, int start, int end) {
+        return graphOf(maze).solve(maze, start, end);
+    }
+
+    @Override
+    public int[] solve(Maze maze, int start, int end, SearchStats stats) {
+        return graphOf(maze).solve(maze, start, end, stats);
+    }
+
+    /**
+     * @param maze The maze to condense.
+     * @return The cached graph if it describes the maze, otherwise a newly built one.
+     */
+    public CorridorGraph graphOf(Maze maze) {
+        CorridorGraph graph = lastGraph;
+        if (graph == null || !graph.describes(maze)) {
+            graph = CorridorGraph.of(maze);
+            lastGraph = graph;
+        }
+        return graph;
+    }
+}
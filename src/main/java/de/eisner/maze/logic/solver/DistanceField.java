@@ -0,0 +1,95 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.Point;
+
+import java.util.Optional;
+
+/**
+ * Distances of all cells to one target cell, computed once by a reverse Breadth-First Search.
+ * Afterwards the remaining distance and the next step towards the target are O(1) lookups from any cell,
+ * and the path from any cell can be traced without another search.
+ */
+public final class DistanceField {
+    /** Distance reported for walls and cells that cannot reach the target. */
+    public static final int UNREACHABLE = -1;
+
+    private final int rows;
+    private final int cols;
+    private final Point target;
+    private final int[] distances;
+
+    private DistanceField(int rows, int cols, Point target, int[] distances) {
+        this.rows = rows;
+        this.cols = cols;
+        this.target = target;
+        this.distances = distances;
+    }
+
+    /**
+     * Runs a BFS from the target over all passable cells.
+     * @param maze The maze to measure. It is not modified.
+     * @param target The cell all distances refer to, usually the exit.
+     * @return The distance field.
+     */
+    public static DistanceField towards(Maze maze, Point target) {
+        int cols = maze.cols();
+        int[] distances = FloodFill.distances(maze, new int[]{target.row() * cols + target.col()}, null);
+        return new DistanceField(maze.rows(), cols, target, distances);
+    }
+
+    public Point target() {
+        return target;
+    }
+
+    /**
+     * @return Number of steps from the cell to the target, or {@link #UNREACHABLE}.
+     */
+    public int distance(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return UNREACHABLE;
+        }
+        return distances[row * cols + col];
+    }
+
+    /**
+     * @return The neighbor one step closer to the target, or empty if the cell is the target or cannot reach it.
+     */
+    public Optional<Point> nextStep(int row, int col) {
+        int current = distance(row, col);
+        if (current <= 0) {
+            return Optional.empty();
+        }
+
+        // down, up, right, left
+        if (distance(row + 1, col) == current - 1) return Optional.of(new Point(row + 1, col));
+        if (distance(row - 1, col) == current - 1) return Optional.of(new Point(row - 1, col));
+        if (distance(row, col + 1) == current - 1) return Optional.of(new Point(row, col + 1));
+        return Optional.of(new Point(row, col - 1));
+    }
+
+    /**
+     * Marks the path from the given cell to the target on a copy of the maze.
+     * @param maze The maze this field was computed for.
+     * @param from The start of the path.
+     * @return The copy with the path marked (value 2), or empty if the target cannot be reached.
+     */
+    public Optional<Maze> markPath(Maze maze, Point from) {
+        if (distance(from.row(), from.col()) == UNREACHABLE) {
+            return Optional.empty();
+        }
+
+        Maze solved = maze.copy();
+        int row = from.row();
+        int col = from.col();
+        while (true) {
+            solved.set(row, col, 2);
+            Optional<Point> next = nextStep(row, col);
+            if (next.isEmpty()) {
+                return Optional.of(solved);
+            }
+            row = next.get().row();
+            col = next.get().col();
+        }
+    }
+}
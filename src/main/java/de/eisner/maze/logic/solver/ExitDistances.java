@@ -0,0 +1,96 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.Point;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Distances between all exits of a maze and from every cell to its nearest exit.
+ * The exit-to-exit matrix is filled by one BFS per exit, run in parallel on the common ForkJoinPool;
+ * the nearest exit of every cell comes from a single multi-source BFS seeded with all exits.
+ */
+public final class ExitDistances {
+    /** Distance reported for pairs that are not connected. */
+    public static final int UNREACHABLE = -1;
+
+    private final List<Point> exits;
+    private final int[][] matrix;
+    private final int cols;
+    private final int[] nearestExit;
+    private final int[] nearestDistance;
+
+    private ExitDistances(List<Point> exits, int[][] matrix, int cols, int[] nearestExit, int[] nearestDistance) {
+        this.exits = exits;
+        this.matrix = matrix;
+        this.cols = cols;
+        this.nearestExit = nearestExit;
+        this.nearestDistance = nearestDistance;
+    }
+
+    /**
+     * Measures all exit pairs and the nearest exit of every cell.
+     * @param maze The maze to measure. It is not modified.
+     * @param exits The exits to connect, e.g. all openings in the outer wall.
+     * @return The measured distances.
+     */
+    public static ExitDistances compute(Maze maze, List<Point> exits) {
+        int cols = maze.cols();
+        int[] sources = exits.stream().mapToInt(p -> p.row() * cols + p.col()).toArray();
+
+        int[][] matrix = IntStream.range(0, sources.length).parallel()
+                .mapToObj(i -> {
+                    int[] distances = FloodFill.distances(maze, new int[]{sources[i]}, null);
+                    int[] row = new int[sources.length];
+                    for (int j = 0; j < sources.length; j++) {
+                        row[j] = distances[sources[j]];
+                    }
+                    return row;
+                })
+                .toArray(int[][]::new);
+
+        int[] nearestExit = new int[maze.rows() * cols];
+        int[] nearestDistance = FloodFill.distances(maze, sources, nearestExit);
+
+        return new ExitDistances(List.copyOf(exits), matrix, cols, nearestExit, nearestDistance);
+    }
+
+    public List<Point> exits() {
+        return exits;
+    }
+
+    /**
+     * @param from Position of the first exit in {@link #exits()}.
+     * @param to Position of the second exit in {@link #exits()}.
+     * @return Number of steps between both exits, or {@link #UNREACHABLE}.
+     */
+    public int distance(int from, int to) {
+        return matrix[from][to];
+    }
+
+    /**
+     * @return A copy of the full exit-to-exit distance matrix, indexed like {@link #exits()}.
+     */
+    public int[][] matrix() {
+        int[][] copy = new int[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * @return Position in {@link #exits()} of the exit closest to the cell, or {@link #UNREACHABLE}.
+     */
+    public int nearestExit(int row, int col) {
+        return nearestExit[row * cols + col];
+    }
+
+    /**
+     * @return Number of steps from the cell to its nearest exit, or {@link #UNREACHABLE}.
+     */
+    public int distanceToNearestExit(int row, int col) {
+        return nearestDistance[row * cols + col];
+    }
+}
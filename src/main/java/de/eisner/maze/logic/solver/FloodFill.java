@@ -0,0 +1,69 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-First flood fill from one or more source cells over all passable cells.
+ */
+final class FloodFill {
+
+    private FloodFill() {
+    }
+
+    /**
+     * Computes the distance from every cell to its nearest source.
+     * @param maze The maze to fill.
+     * @param sources Flat indices of the source cells.
+     * @param nearest Receives for every cell the position in {@code sources} of its nearest source,
+     *                ties go to the earlier source; may be null if not needed.
+     * @return The distances per flat index, {@link Trails#UNVISITED} for cells no source can reach.
+     */
+    static int[] distances(Maze maze, int[] sources, int[] nearest) {
+        int rows = maze.rows();
+        int cols = maze.cols();
+        int[] distances = new int[rows * cols];
+        Arrays.fill(distances, Trails.UNVISITED);
+        if (nearest != null) {
+            Arrays.fill(nearest, Trails.UNVISITED);
+        }
+
+        int[] queue = new int[rows * cols];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < sources.length; i++) {
+            if (distances[sources[i]] == Trails.UNVISITED) {
+                distances[sources[i]] = 0;
+                if (nearest != null) nearest[sources[i]] = i;
+                queue[tail++] = sources[i];
+            }
+        }
+
+        while (head < tail) {
+            int current = queue[head++];
+            int row = current / cols;
+            int col = current - row * cols;
+            int next = distances[current] + 1;
+            int label = nearest == null ? 0 : nearest[current];
+
+            // down, up, right, left
+            if (row + 1 < rows) tail = visit(maze, current + cols, next, label, distances, nearest, queue, tail);
+            if (row > 0) tail = visit(maze, current - cols, next, label, distances, nearest, queue, tail);
+            if (col + 1 < cols) tail = visit(maze, current + 1, next, label, distances, nearest, queue, tail);
+            if (col > 0) tail = visit(maze, current - 1, next, label, distances, nearest, queue, tail);
+        }
+        return distances;
+    }
+
+    private static int visit(Maze maze, int cell, int distance, int label,
+                             int[] distances, int[] nearest, int[] queue, int tail) {
+        if (distances[cell] != Trails.UNVISITED || maze.isWall(cell)) {
+            return tail;
+        }
+        distances[cell] = distance;
+        if (nearest != null) nearest[cell] = label;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+}
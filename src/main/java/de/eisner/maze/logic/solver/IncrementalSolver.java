@@ -0,0 +1,270 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Lifelong Planning A* (LPA*) between two fixed cells of a maze that is edited between solves.
+ * The search state is kept after every solve. Opening or closing a wall only re-queues that cell
+ * and its neighbors, and the next {@link #solve()} repairs the costs that changed instead of
+ * searching the whole maze again.
+ * <p>
+ * Every cell has a cost {@code g} from the last solve and a look-ahead cost {@code rhs} derived from its
+ * neighbors; only cells where the two differ are queued. The Manhattan distance to the end guides the order.
+ * A start or end cell that is a wall has no path.
+ */
+public final class IncrementalSolver {
+    private static final int INFINITE = Integer.MAX_VALUE / 2;
+
+    private final Maze maze;
+    private final int rows;
+    private final int cols;
+    private final int start;
+    private final int end;
+    private final int[] g;
+    private final int[] rhs;
+    private final KeyHeap open;
+    private int lastExpansions;
+
+    /**
+     * @param maze The maze to solve. Edits must go through {@link #toggleWall(int, int)} so the solver sees them.
+     * @param start Flat index of the first cell.
+     * @param end Flat index of the last cell.
+     */
+    public IncrementalSolver(Maze maze, int start, int end) {
+        this.maze = maze;
+        this.rows = maze.rows();
+        this.cols = maze.cols();
+        this.start = start;
+        this.end = end;
+        this.g = new int[rows * cols];
+        this.rhs = new int[rows * cols];
+        this.open = new KeyHeap(rows * cols);
+
+        Arrays.fill(g, INFINITE);
+        Arrays.fill(rhs, INFINITE);
+        if (!maze.isWall(start)) {
+            rhs[start] = 0;
+            queue(start);
+        }
+    }
+
+    /**
+     * Brings the costs up to date with all edits since the last call.
+     * @return The flat indices of a shortest path from start to end, or an empty array if no path exists.
+     */
+    public int[] solve() {
+        lastExpansions = 0;
+        while (!open.isEmpty() && (open.topBefore(Math.min(g[end], rhs[end])) || rhs[end] != g[end])) {
+            int cell = open.poll();
+            lastExpansions++;
+            if (g[cell] > rhs[cell]) {
+                g[cell] = rhs[cell];
+                updateNeighbors(cell);
+            } else {
+                g[cell] = INFINITE;
+                update(cell);
+                updateNeighbors(cell);
+            }
+        }
+        return g[end] >= INFINITE ? Trails.NO_PATH : trace();
+    }
+
+    /**
+     * Solves and marks the path on a copy of the maze.
+     * @return An Optional containing the copy with the path marked (value 2), or empty if no path exists.
+     */
+    public Optional<Maze> markPath() {
+        int[] path = solve();
+        if (path.length == 0) {
+            return Optional.empty();
+        }
+
+        Maze solved = maze.copy();
+        for (int cell : path) {
+            solved.set(cell / cols, cell % cols, 2);
+        }
+        return Optional.of(solved);
+    }
+
+    /**
+     * Opens a wall or closes a passage and marks the affected cells for the next {@link #solve()}.
+     * @return true if the cell is a wall afterwards.
+     */
+    public boolean toggleWall(int row, int col) {
+        boolean wall = !maze.isWall(row, col);
+        maze.set(row, col, wall ? 1 : 0);
+
+        int cell = row * cols + col;
+        update(cell);
+        updateNeighbors(cell);
+        return wall;
+    }
+
+    /**
+     * @return The number of cells taken from the queue by the last {@link #solve()}.
+     */
+    public int lastExpansions() {
+        return lastExpansions;
+    }
+
+    private void updateNeighbors(int cell) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        if (row + 1 < rows) update(cell + cols);
+        if (row > 0) update(cell - cols);
+        if (col + 1 < cols) update(cell + 1);
+        if (col > 0) update(cell - 1);
+    }
+
+    /**
+     * Recomputes the look-ahead cost of a cell from its neighbors and queues it if it is inconsistent.
+     */
+    private void update(int cell) {
+        if (cell != start) {
+            rhs[cell] = maze.isWall(cell) ? INFINITE : bestNeighbor(cell) + 1;
+            if (rhs[cell] > INFINITE) rhs[cell] = INFINITE;
+        } else {
+            rhs[cell] = maze.isWall(cell) ? INFINITE : 0;
+        }
+        open.remove(cell);
+        if (g[cell] != rhs[cell]) {
+            queue(cell);
+        }
+    }
+
+    private int bestNeighbor(int cell) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int best = INFINITE;
+        if (row + 1 < rows && !maze.isWall(cell + cols)) best = Math.min(best, g[cell + cols]);
+        if (row > 0 && !maze.isWall(cell - cols)) best = Math.min(best, g[cell - cols]);
+        if (col + 1 < cols && !maze.isWall(cell + 1)) best = Math.min(best, g[cell + 1]);
+        if (col > 0 && !maze.isWall(cell - 1)) best = Math.min(best, g[cell - 1]);
+        return best;
+    }
+
+    private void queue(int cell) {
+        int cost = Math.min(g[cell], rhs[cell]);
+        int row = cell / cols;
+        int heuristic = Math.abs(row - end / cols) + Math.abs(cell - row * cols - end % cols);
+        open.add(cell, cost + heuristic, cost);
+    }
+
+    /**
+     * Walks from the end to the start, always stepping to the neighbor with the lowest cost.
+     */
+    private int[] trace() {
+        int[] path = new int[g[end] + 1];
+        int cell = end;
+        for (int i = path.length - 1; i > 0; i--) {
+            path[i] = cell;
+            int row = cell / cols;
+            int col = cell - row * cols;
+            int next = -1;
+            if (row + 1 < rows) next = cheaper(next, cell + cols);
+            if (row > 0) next = cheaper(next, cell - cols);
+            if (col + 1 < cols) next = cheaper(next, cell + 1);
+            if (col > 0) next = cheaper(next, cell - 1);
+            cell = next;
+        }
+        path[0] = cell;
+        return path;
+    }
+
+    private int cheaper(int best, int candidate) {
+        if (maze.isWall(candidate)) return best;
+        return best < 0 || g[candidate] < g[best] ? candidate : best;
+    }
+
+    /**
+     * Binary min-heap of cells ordered by a two-part key, with positions tracked so cells can be removed.
+     */
+    private static final class KeyHeap {
+        private final int[] heap;
+        private final int[] position;
+        private final int[] primary;
+        private final int[] secondary;
+        private int size;
+
+        private KeyHeap(int cells) {
+            heap = new int[cells];
+            position = new int[cells];
+            primary = new int[cells];
+            secondary = new int[cells];
+            Arrays.fill(position, -1);
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * @return true if the smallest queued key is below the given key, in which the heuristic part is zero.
+         */
+        private boolean topBefore(int cost) {
+            int top = heap[0];
+            return primary[top] < cost || (primary[top] == cost && secondary[top] < cost);
+        }
+
+        private void add(int cell, int key, int tieBreak) {
+            primary[cell] = key;
+            secondary[cell] = tieBreak;
+            heap[size] = cell;
+            position[cell] = size;
+            up(size++);
+        }
+
+        private int poll() {
+            int top = heap[0];
+            remove(top);
+            return top;
+        }
+
+        private void remove(int cell) {
+            int i = position[cell];
+            if (i < 0) return;
+            position[cell] = -1;
+            int last = heap[--size];
+            if (i == size) return;
+            heap[i] = last;
+            position[last] = i;
+            up(i);
+            down(position[last]);
+        }
+
+        private boolean less(int a, int b) {
+            return primary[a] < primary[b] || (primary[a] == primary[b] && secondary[a] < secondary[b]);
+        }
+
+        private void up(int i) {
+            int cell = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(cell, heap[parent])) break;
+                heap[i] = heap[parent];
+                position[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = cell;
+            position[cell] = i;
+        }
+
+        private void down(int i) {
+            int cell = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+                if (!less(heap[child], cell)) break;
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = cell;
+            position[cell] = i;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package de.eisner.maze.logic.solver;
+
+/**
+ * Effort of a single search, filled in by {@link SolverStrategy#solve(de.eisner.maze.model.Maze, int, int, SearchStats)}.
+ * The solvers count in local variables and write the totals once when the search ends,
+ * so passing no stats object costs the search loops nothing.
+ */
+public final class SearchStats {
+    private long expandedCells;
+    private int peakFrontier;
+    private int pathLength;
+
+    /**
+     * @return Cells (or graph nodes) taken from the frontier and expanded.
+     */
+    public long expandedCells() {
+        return expandedCells;
+    }
+
+    /**
+     * @return The largest number of entries waiting in the frontier at once.
+     */
+    public int peakFrontier() {
+        return peakFrontier;
+    }
+
+    /**
+     * @return Cells on the found path including both ends, or 0 if no path exists.
+     */
+    public int pathLength() {
+        return pathLength;
+    }
+
+    void record(long expandedCells, int peakFrontier, int[] path) {
+        this.expandedCells = expandedCells;
+        this.peakFrontier = peakFrontier;
+        this.pathLength = path.length;
+    }
+}
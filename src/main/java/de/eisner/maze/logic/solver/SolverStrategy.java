@@ -0,0 +1,41 @@
+package de.eisner.maze.logic.solver;
+
+import de.eisner.maze.model.Maze;
+
+/**
+ * Strategy interface for searching a shortest path between two cells of a maze.
+ * Cells are addressed by flat indices ({@code row * width + col}).
+ */
+public interface SolverStrategy {
+    /** Plain breadth-first search from start to end. */
+    SolverStrategy BFS = new BfsSolver();
+    /** Breadth-first search growing from both ends until the frontiers meet. */
+    SolverStrategy BIDIRECTIONAL_BFS = new BidirectionalBfsSolver();
+    /** A* search guided by the Manhattan distance to the end. */
+    SolverStrategy A_STAR = new AStarSolver();
+    /** A* over junctions and dead ends, with corridors collapsed into weighted edges. */
+    SolverStrategy CORRIDOR_GRAPH = new CorridorSolver();
+
+    /**
+     * Searches a shortest path between two passable cells.
+     * @param maze The maze to search. It is never modified.
+     * @param start Flat index of the first cell.
+     * @param end Flat index of the last cell.
+     * @return The flat indices of the path from start to end, or an empty array if no path exists.
+     */
+    int[] solve(Maze maze, int start, int end);
+
+    /**
+     * Searches like {@link #solve(Maze, int, int)} and reports the effort of the search.
+     * Strategies that do not count their work only report the path length.
+     * @param stats Receives the counters of this search; may be null.
+     * @return The flat indices of the path from start to end, or an empty array if no path exists.
+     */
+    default int[] solve(Maze maze, int start, int end, SearchStats stats) {
+        int[] path = solve(maze, start, end);
+        if (stats != null) {
+            stats.record(0, 0, path);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,32 @@
+package de.eisner.maze.logic.solver;
+
+/**
+ * Helper for turning parent arrays produced by the solvers into paths.
+ */
+final class Trails {
+    static final int UNVISITED = -1;
+    static final int[] NO_PATH = new int[0];
+
+    private Trails() {
+    }
+
+    /**
+     * Follows the parent links from end back to start.
+     * @param comeFrom Parent array in which the start cell points to itself.
+     * @return The path ordered from start to end.
+     */
+    static int[] trace(int[] comeFrom, int start, int end) {
+        int length = 1;
+        for (int step = end; step != start; step = comeFrom[step]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int step = end;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = step;
+            step = comeFrom[step];
+        }
+        return path;
+    }
+}
@@ -0,0 +1,221 @@
+package de.eisner.maze.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Compact maze grid backed by bitsets over the flat cell index.
+ * Walls take one bit per tile; a second bitset for path marks is only allocated once a path is marked.
+ * Compared to an {@code int[][]} this needs 16-32 times less memory and keeps neighboring rows
+ * in one contiguous array.
+ */
+public final class BitMaze implements Maze {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int rows;
+    private final int cols;
+    private final long[] walls;
+    private long[] path;
+
+    /**
+     * Creates a maze where every tile is a pass.
+     */
+    public BitMaze(int rows, int cols) {
+        this(rows, cols, new long[words(rows, cols)], null);
+    }
+
+    /**
+     * Wraps existing bitsets without copying them.
+     * @param walls Wall bits, bit {@code i} of word {@code i >>> 6} belongs to flat index {@code i}.
+     * @param path Path bits in the same layout, or null if nothing is marked.
+     */
+    public BitMaze(int rows, int cols, long[] walls, long[] path) {
+        int words = words(rows, cols);
+        if (walls.length < words || (path != null && path.length < words)) {
+            throw new IllegalArgumentException("Bitsets are too small for a " + rows + "x" + cols + " maze");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.walls = walls;
+        this.path = path;
+    }
+
+    /**
+     * Creates a maze where every tile is a wall.
+     */
+    public static BitMaze ofWalls(int rows, int cols) {
+        BitMaze maze = new BitMaze(rows, cols);
+        Arrays.fill(maze.walls, -1L);
+        return maze;
+    }
+
+    /**
+     * Number of 64-bit words needed for one bitset of a maze of the given size.
+     */
+    public static int words(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Invalid maze size " + rows + "x" + cols);
+        }
+        long cells = (long) rows * cols;
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze " + rows + "x" + cols + " exceeds the maximum cell count");
+        }
+        return (int) ((cells + 63) >>> 6);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        int index = row * cols + col;
+        if (isWall(index)) {
+            return 1;
+        }
+        return isPath(index) ? 2 : 0;
+    }
+
+    @Override
+    public void set(int row, int col, int value) {
+        int index = row * cols + col;
+        setWall(index, value == 1);
+        setPath(index, value == 2);
+    }
+
+    @Override
+    public boolean isWall(int row, int col) {
+        return isWall(row * cols + col);
+    }
+
+    @Override
+    public boolean isWall(int index) {
+        return (walls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void setWall(int index, boolean wall) {
+        if (wall) {
+            walls[index >>> 6] |= 1L << index;
+        } else {
+            walls[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Opens a tile with an atomic update of its bitset word.
+     * Threads that open disjoint tiles of the same maze this way never lose each other's updates,
+     * even when the tiles share a word.
+     */
+    public void clearWallAtomically(int index) {
+        WORDS.getAndBitwiseAnd(walls, index >>> 6, ~(1L << index));
+    }
+
+    public boolean isPath(int index) {
+        return path != null && (path[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void setPath(int index, boolean marked) {
+        if (marked) {
+            if (path == null) {
+                path = new long[walls.length];
+            }
+            path[index >>> 6] |= 1L << index;
+        } else if (path != null) {
+            path[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * @param word Index of a 64-bit word; bit {@code i} of word {@code w} is the tile with flat index {@code w * 64 + i}.
+     * @return The wall bits of that word.
+     */
+    public long wallWord(int word) {
+        return walls[word];
+    }
+
+    /**
+     * @param word Index of a 64-bit word in the same layout as {@link #wallWord(int)}.
+     * @return The path bits of that word, 0 if no path is marked.
+     */
+    public long pathWord(int word) {
+        return path == null ? 0L : path[word];
+    }
+
+    /**
+     * Copies one grid row into row-aligned bit words, 64 tiles per word.
+     * @param row The row to copy.
+     * @param rowWalls Receives the wall bits; needs {@code (cols + 63) / 64} words.
+     * @param rowMarks Receives the path bits; same size as rowWalls.
+     * @return true if the row contains path tiles.
+     */
+    public boolean copyRow(int row, long[] rowWalls, long[] rowMarks) {
+        int words = (cols + 63) >>> 6;
+        long start = (long) row * cols;
+        long any = 0;
+        for (int i = 0; i < words; i++) {
+            long bit = start + 64L * i;
+            rowWalls[i] = bitsAt(walls, bit);
+            rowMarks[i] = path == null ? 0L : bitsAt(path, bit);
+        }
+        if ((cols & 63) != 0) {
+            long mask = (1L << cols) - 1;
+            rowWalls[words - 1] &= mask;
+            rowMarks[words - 1] &= mask;
+        }
+        for (int i = 0; i < words; i++) {
+            any |= rowMarks[i];
+        }
+        return any != 0;
+    }
+
+    /**
+     * @return The 64 bits starting at the given bit index, padded with zeros past the end of the array.
+     */
+    private static long bitsAt(long[] bits, long bit) {
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        if (word >= bits.length) {
+            return 0L;
+        }
+        long value = bits[word] >>> shift;
+        if (shift != 0 && word + 1 < bits.length) {
+            value |= bits[word + 1] << (64 - shift);
+        }
+        return value;
+    }
+
+    /**
+     * Hashes the bitsets word by word, which is 64 times fewer steps than hashing tile by tile.
+     */
+    @Override
+    public long contentHash() {
+        long hash = (long) rows * 31 + cols;
+        int words = words(rows, cols);
+        for (int w = 0; w < words; w++) {
+            hash = (hash + cellBits(w, walls[w])) * 0x9E3779B97F4A7C15L;
+            hash = (hash + cellBits(w, pathWord(w))) * 0xC2B2AE3D27D4EB4FL;
+            hash ^= hash >>> 29;
+        }
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Drops the bits of a word that lie past the last tile, which {@link #ofWalls} and larger wrapped arrays may set.
+     */
+    private long cellBits(int word, long bits) {
+        int tilesInWord = rows * cols - (word << 6);
+        return tilesInWord >= 64 ? bits : bits & ((1L << tilesInWord) - 1);
+    }
+
+    @Override
+    public BitMaze copy() {
+        return new BitMaze(rows, cols, walls.clone(), path == null ? null : path.clone());
+    }
+}
@@ -1,8 +1,59 @@
 package de.eisner.maze.model;
 
 /**
- * Data container representing the maze grid.
- * @param grid A 2D integer array where 0=Pass, 1=Wall, 2=Path.
+ * Read and write access to a maze grid where every tile is 0=Pass, 1=Wall or 2=Path.
+ * Cells can also be addressed by their flat index {@code row * cols() + col}.
  */
-public record Maze(int[][] grid) {
+public interface Maze {
+    /**
+     * @return Number of rows (height of the grid).
+     */
+    int rows();
+
+    /**
+     * @return Number of columns (width of the grid).
+     */
+    int cols();
+
+    /**
+     * @return The tile at the given position: 0=Pass, 1=Wall, 2=Path.
+     */
+    int get(int row, int col);
+
+    /**
+     * Sets the tile at the given position.
+     * @param value 0=Pass, 1=Wall, 2=Path.
+     */
+    void set(int row, int col, int value);
+
+    /**
+     * @return A deep copy that can be modified without affecting this maze.
+     */
+    Maze copy();
+
+    default boolean isWall(int row, int col) {
+        return get(row, col) == 1;
+    }
+
+    /**
+     * @param index Flat index of the cell.
+     * @return true if the cell is a wall.
+     */
+    default boolean isWall(int index) {
+        return isWall(index / cols(), index % cols());
+    }
+
+    /**
+     * Hashes the dimensions and all tiles, so equal mazes of the same implementation get equal hashes.
+     * @return A 64-bit hash of the maze content.
+     */
+    default long contentHash() {
+        long hash = (long) rows() * 31 + cols();
+        for (int r = 0; r < rows(); r++) {
+            for (int c = 0; c < cols(); c++) {
+                hash = hash * 0x9E3779B97F4A7C15L + get(r, c);
+            }
+        }
+        return hash ^ (hash >>> 31);
+    }
 }
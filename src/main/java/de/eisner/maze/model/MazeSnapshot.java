@@ -0,0 +1,88 @@
+package de.eisner.maze.model;
+
+/**
+ * Immutable maze that many threads can read at once without locking.
+ * The tiles are copied once when the snapshot is taken; {@link #copy()} hands out a mutable copy for edits,
+ * which can be frozen again into a new snapshot. The content hash is computed once, so solution cache
+ * lookups of a snapshot cost no more than a field read.
+ */
+public final class MazeSnapshot implements Maze {
+    private final BitMaze tiles;
+    private final long contentHash;
+
+    private MazeSnapshot(BitMaze tiles) {
+        this.tiles = tiles;
+        this.contentHash = tiles.contentHash();
+    }
+
+    /**
+     * @param maze The maze to freeze. Later changes to it do not affect the snapshot.
+     * @return The maze itself if it already is a snapshot, otherwise a frozen copy.
+     */
+    public static MazeSnapshot of(Maze maze) {
+        if (maze instanceof MazeSnapshot snapshot) {
+            return snapshot;
+        }
+        if (maze instanceof BitMaze bitMaze) {
+            return new MazeSnapshot(bitMaze.copy());
+        }
+
+        BitMaze copy = new BitMaze(maze.rows(), maze.cols());
+        for (int r = 0; r < maze.rows(); r++) {
+            for (int c = 0; c < maze.cols(); c++) {
+                copy.set(r, c, maze.get(r, c));
+            }
+        }
+        return new MazeSnapshot(copy);
+    }
+
+    @Override
+    public int rows() {
+        return tiles.rows();
+    }
+
+    @Override
+    public int cols() {
+        return tiles.cols();
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return tiles.get(row, col);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; edit a {@link #copy()} instead.
+     */
+    @Override
+    public void set(int row, int col, int value) {
+        throw new UnsupportedOperationException("Maze snapshots are read-only");
+    }
+
+    @Override
+    public boolean isWall(int row, int col) {
+        return tiles.isWall(row, col);
+    }
+
+    @Override
+    public boolean isWall(int index) {
+        return tiles.isWall(index);
+    }
+
+    @Override
+    public long contentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public BitMaze copy() {
+        return tiles.copy();
+    }
+
+    /**
+     * Read access to the frozen bitsets for row copies; callers must not modify them.
+     */
+    BitMaze tiles() {
+        return tiles;
+    }
+}
@@ -0,0 +1,20 @@
+package de.eisner.maze.model;
+
+import java.io.IOException;
+
+/**
+ * Receives a maze one grid row at a time, from top to bottom, so mazes can be produced or written
+ * without holding the whole grid in memory.
+ */
+@FunctionalInterface
+public interface RowSink {
+    /**
+     * Receives the next row. Bit {@code col % 64} of word {@code col / 64} describes the tile in column
+     * {@code col}; bits beyond the last column are zero. The arrays are reused for the next row,
+     * so they must not be kept.
+     * @param walls Bits set for wall tiles.
+     * @param marks Bits set for path tiles, or null if the row has none.
+     * @throws IOException If the row cannot be written.
+     */
+    void accept(long[] walls, long[] marks) throws IOException;
+}
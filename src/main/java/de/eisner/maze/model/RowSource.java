@@ -0,0 +1,72 @@
+package de.eisner.maze.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A maze that is handed out row by row instead of as a whole, e.g. while it is being generated.
+ */
+public interface RowSource {
+    /**
+     * @return Number of grid rows the source emits.
+     */
+    int rows();
+
+    /**
+     * @return Number of tiles in every row.
+     */
+    int cols();
+
+    /**
+     * Emits all rows from top to bottom. A source may only be emitted once.
+     * @param sink Receives the rows.
+     * @throws IOException If the sink fails.
+     */
+    void emit(RowSink sink) throws IOException;
+
+    /**
+     * @param maze A complete maze.
+     * @return A source emitting the rows of the maze; a {@link BitMaze} is copied word by word.
+     */
+    static RowSource of(Maze maze) {
+        return new RowSource() {
+            @Override
+            public int rows() {
+                return maze.rows();
+            }
+
+            @Override
+            public int cols() {
+                return maze.cols();
+            }
+
+            @Override
+            public void emit(RowSink sink) throws IOException {
+                int cols = maze.cols();
+                long[] walls = new long[(cols + 63) >>> 6];
+                long[] marks = new long[walls.length];
+                for (int r = 0; r < maze.rows(); r++) {
+                    boolean marked;
+                    if (maze instanceof BitMaze bitMaze) {
+                        marked = bitMaze.copyRow(r, walls, marks);
+                    } else if (maze instanceof MazeSnapshot snapshot) {
+                        marked = snapshot.tiles().copyRow(r, walls, marks);
+                    } else {
+                        Arrays.fill(walls, 0);
+                        Arrays.fill(marks, 0);
+                        marked = false;
+                        for (int c = 0; c < cols; c++) {
+                            int tile = maze.get(r, c);
+                            if (tile == 1) walls[c >>> 6] |= 1L << c;
+                            if (tile == 2) {
+                                marks[c >>> 6] |= 1L << c;
+                                marked = true;
+                            }
+                        }
+                    }
+                    sink.accept(walls, marked ? marks : null);
+                }
+            }
+        };
+    }
+}
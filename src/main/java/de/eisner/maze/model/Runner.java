@@ -23,9 +23,9 @@ public class Runner {
         int nr = row + dRow;
         int nc = col + dCol;
 
-        if (nr >= 0 && nr < maze.grid().length &&
-            nc >= 0 && nc < maze.grid()[0].length &&
-            maze.grid()[nr][nc] != 1) {
+        if (nr >= 0 && nr < maze.rows() &&
+            nc >= 0 && nc < maze.cols() &&
+            !maze.isWall(nr, nc)) {
             this.row = nr;
             this.col = nc;
         }
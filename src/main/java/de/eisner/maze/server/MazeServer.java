@@ -0,0 +1,436 @@
+package de.eisner.maze.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.eisner.maze.logic.service.MazeService;
+import de.eisner.maze.logic.service.SessionState;
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.Point;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP server for playing and solving mazes, built on the JDK's {@code com.sun.net.httpserver}.
+ * Every request runs on its own virtual thread, and the sessions live in the thread-safe {@link MazeService},
+ * so thousands of players can be served at once. The server only binds to the loopback interface.
+ * <p>
+ * Endpoints:
+ * <pre>
+ * POST   /sessions?rows=R&amp;cols=C[&amp;seed=S]         generate a maze and start a session
+ * POST   /sessions?file=NAME                         load a maze from the maze directory and start a session
+ * GET    /sessions/{id}/maze                         the maze of a session again
+ * POST   /sessions/{id}/move?dir=up|down|left|right  move the runner by one step
+ * GET    /sessions/{id}/solution[?strategy=S]        shortest path from the entry to the exit
+ * DELETE /sessions/{id}                              end a session
+ * </pre>
+ * Mazes are sent once, in the binary {@code .mzb} encoding (2 bits per tile), with the session id, the start
+ * and the target in the headers {@code X-Session-Id}, {@code X-Start} and {@code X-Target} ({@code row,col}).
+ * A move answers with three bytes instead of a new frame: the row and column delta the runner moved
+ * (signed, 0/0 if blocked) and a flag byte that is 1 once the target is reached. A solution is a sequence of
+ * little-endian ints, the flat cell indices {@code row * cols + col} of the path. Errors are plain text.
+ * <p>
+ * Generated mazes need at least {@value #MIN_SIDE} rows and columns, and generated and loaded mazes are limited
+ * to {@value #MAX_CELLS} cells. Sessions that are not used for
+ * {@link #SESSION_IDLE_TIMEOUT} are ended, e.g. after a player disconnected without deleting the session,
+ * and at most {@value #MAX_SESSIONS} sessions are open at once by default.
+ */
+public class MazeServer {
+    /** Fewest rows and columns the generator can carve a maze with an entry and an exit into. */
+    static final int MIN_SIDE = 3;
+    /** Largest maze that may be generated or loaded by a request. */
+    static final long MAX_CELLS = 4096L * 4096;
+    /** Largest maze file that is read; a text maze needs one byte per cell plus line breaks. */
+    private static final long MAX_FILE_BYTES = 3 * MAX_CELLS;
+    static final int MAX_SESSIONS = 10_000;
+    static final Duration SESSION_IDLE_TIMEOUT = Duration.ofMinutes(10);
+    private static final String SESSIONS = "/sessions";
+    private static final String BINARY = "application/octet-stream";
+
+    private final MazeService service;
+    private final Path mazeDirectory;
+    private final int maxSessions;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScheduledExecutorService idleSessionReaper;
+
+    /**
+     * @param service The service that holds the sessions.
+     * @param mazeDirectory Directory that {@code file} requests are resolved against, or null to disable loading.
+     */
+    public MazeServer(MazeService service, Path mazeDirectory) {
+        this(service, mazeDirectory, MAX_SESSIONS);
+    }
+
+    /**
+     * @param maxSessions Most sessions that may be open at once.
+     */
+    MazeServer(MazeService service, Path mazeDirectory, int maxSessions) {
+        this.service = service;
+        this.mazeDirectory = mazeDirectory == null ? null : mazeDirectory.toAbsolutePath().normalize();
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     * @param port The port, or 0 to pick a free one.
+     * @return The address the server is bound to.
+     * @throws IOException If the port cannot be bound.
+     */
+    public synchronized InetSocketAddress start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The server is already running");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(SESSIONS, this::handle);
+        server.start();
+
+        idleSessionReaper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("maze-session-reaper").daemon().factory());
+        long period = SESSION_IDLE_TIMEOUT.toSeconds() / 4;
+        idleSessionReaper.scheduleAtFixedRate(() -> service.closeIdleSessions(SESSION_IDLE_TIMEOUT),
+                period, period, TimeUnit.SECONDS);
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests and lets running exchanges finish.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            idleSessionReaper.shutdownNow();
+            server = null;
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Blocks until {@link #stop()} was called.
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage());
+            } catch (NoSuchElementException | FileNotFoundException e) {
+                sendText(exchange, 404, e.getMessage());
+            } catch (HttpError e) {
+                sendText(exchange, e.status, e.getMessage());
+            } catch (RuntimeException e) {
+                sendText(exchange, 500, e.getMessage() == null ? e.toString() : e.getMessage());
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().substring(SESSIONS.length()).split("/");
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+
+        if (parts.length > 0 && !parts[0].isEmpty()) {
+            throw new NoSuchElementException("Unknown resource " + exchange.getRequestURI().getPath());
+        }
+        if (parts.length <= 1) {
+            requireMethod(method, "POST");
+            openSession(exchange, query);
+            return;
+        }
+
+        long id = sessionId(parts[1]);
+        String action = parts.length > 2 ? parts[2] : "";
+        switch (action) {
+            case "" -> {
+                requireMethod(method, "DELETE");
+                if (!service.closeSession(id)) {
+                    throw new NoSuchElementException("No session " + id);
+                }
+                exchange.sendResponseHeaders(204, -1);
+            }
+            case "maze" -> {
+                requireMethod(method, "GET");
+                sendMaze(exchange, id, sessionMaze(id));
+            }
+            case "move" -> {
+                requireMethod(method, "POST");
+                move(exchange, id, query.getOrDefault("dir", ""));
+            }
+            case "solution" -> {
+                requireMethod(method, "GET");
+                solution(exchange, sessionMaze(id), strategy(query.getOrDefault("strategy", "bfs")));
+            }
+            default -> throw new NoSuchElementException("Unknown resource " + action);
+        }
+    }
+
+    private void openSession(HttpExchange exchange, Map<String, String> query) throws IOException {
+        if (service.sessionCount() >= maxSessions && service.closeIdleSessions(SESSION_IDLE_TIMEOUT) == 0) {
+            throw new HttpError(503, "Too many open sessions");
+        }
+
+        Maze maze;
+        if (query.containsKey("file")) {
+            maze = load(resolve(query.get("file")));
+        } else {
+            int rows = intParameter(query, "rows");
+            int cols = intParameter(query, "cols");
+            if (rows < MIN_SIDE || cols < MIN_SIDE) {
+                throw new IllegalArgumentException(
+                        "A maze needs at least " + MIN_SIDE + " rows and " + MIN_SIDE + " columns");
+            }
+            if ((long) rows * cols > MAX_CELLS) {
+                throw tooLarge();
+            }
+            Optional<Maze> generated = query.containsKey("seed")
+                    ? service.generateMaze(rows, cols, longParameter(query, "seed"))
+                    : service.generateMaze(rows, cols);
+            maze = generated.orElseThrow(() -> new IllegalStateException("The maze could not be generated"));
+        }
+
+        SessionState state = service.openSession(maze)
+                .orElseThrow(() -> new IllegalArgumentException("The maze needs an entry and an exit"));
+        sendMaze(exchange, state.id(), maze);
+    }
+
+    /**
+     * Refuses files that are too large by their length or, for binary mazes, by their header before reading
+     * them; the size of a text maze is only known once it is read and checked afterwards.
+     */
+    private Maze load(Path file) throws IOException {
+        if (Files.exists(file) && (Files.size(file) > MAX_FILE_BYTES
+                || service.cellCount(file.toString()).orElse(0) > MAX_CELLS)) {
+            throw tooLarge();
+        }
+        Maze maze = service.load(file.toString())
+                .orElseThrow(() -> new IllegalArgumentException("The file is not a valid maze"));
+        if ((long) maze.rows() * maze.cols() > MAX_CELLS) {
+            throw tooLarge();
+        }
+        return maze;
+    }
+
+    private static IllegalArgumentException tooLarge() {
+        return new IllegalArgumentException("The maze must not have more than " + MAX_CELLS + " cells");
+    }
+
+    private void sendMaze(HttpExchange exchange, long id, Maze maze) throws IOException {
+        SessionState state = service.sessionState(id)
+                .orElseThrow(() -> new NoSuchElementException("No session " + id));
+        Point target = service.getExits(maze).getLast();
+
+        var headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", BINARY);
+        headers.set("X-Session-Id", Long.toString(id));
+        headers.set("X-Start", state.row() + "," + state.col());
+        headers.set("X-Target", target.row() + "," + target.col());
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            service.writeBinary(maze, body);
+        }
+    }
+
+    private void move(HttpExchange exchange, long id, String direction) throws IOException {
+        int dRow;
+        int dCol;
+        switch (direction.toLowerCase(Locale.ROOT)) {
+            case "up" -> { dRow = -1; dCol = 0; }
+            case "down" -> { dRow = 1; dCol = 0; }
+            case "left" -> { dRow = 0; dCol = -1; }
+            case "right" -> { dRow = 0; dCol = 1; }
+            default -> throw new IllegalArgumentException("dir must be up, down, left or right");
+        }
+
+        SessionState state = service.move(id, dRow, dCol)
+                .orElseThrow(() -> new NoSuchElementException("No session " + id));
+        byte[] delta = state.moved()
+                ? new byte[]{(byte) dRow, (byte) dCol, (byte) (state.atExit() ? 1 : 0)}
+                : new byte[]{0, 0, (byte) (state.atExit() ? 1 : 0)};
+        send(exchange, 200, BINARY, delta);
+    }
+
+    private void solution(HttpExchange exchange, Maze maze, SolverStrategy strategy) throws IOException {
+        List<Point> exits = service.getExits(maze);
+        Maze solved = service.findPath(maze, strategy)
+                .orElseThrow(() -> new NoSuchElementException("The maze has no solution"));
+        int[] path = orderedPath(solved, exits.getFirst());
+
+        ByteBuffer body = ByteBuffer.allocate(path.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        body.asIntBuffer().put(path);
+        send(exchange, 200, BINARY, body.array());
+    }
+
+    /**
+     * Follows the marked tiles of a solved maze from the start. A shortest path never touches itself,
+     * so every path tile has exactly one marked neighbor besides its predecessor.
+     */
+    static int[] orderedPath(Maze solved, Point start) {
+        int width = solved.cols();
+        int height = solved.rows();
+        int[] path = new int[16];
+        int length = 0;
+        int previous = -1;
+        int current = start.row() * width + start.col();
+
+        while (current >= 0) {
+            if (length == path.length) {
+                path = Arrays.copyOf(path, length * 2);
+            }
+            path[length++] = current;
+            int row = current / width;
+            int col = current - row * width;
+            int next = -1;
+            if (row + 1 < height && current + width != previous && solved.get(row + 1, col) == 2) {
+                next = current + width;
+            } else if (row > 0 && current - width != previous && solved.get(row - 1, col) == 2) {
+                next = current - width;
+            } else if (col + 1 < width && current + 1 != previous && solved.get(row, col + 1) == 2) {
+                next = current + 1;
+            } else if (col > 0 && current - 1 != previous && solved.get(row, col - 1) == 2) {
+                next = current - 1;
+            }
+            previous = current;
+            current = next;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    private Maze sessionMaze(long id) {
+        return service.sessionMaze(id).orElseThrow(() -> new NoSuchElementException("No session " + id));
+    }
+
+    /**
+     * Resolves a file name inside the maze directory and rejects names that point outside of it.
+     */
+    private Path resolve(String name) {
+        if (mazeDirectory == null) {
+            throw new HttpError(403, "Loading files is disabled without a maze directory");
+        }
+        Path file = mazeDirectory.resolve(name).normalize();
+        if (!file.startsWith(mazeDirectory)) {
+            throw new IllegalArgumentException("The file must be inside the maze directory");
+        }
+        return file;
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new HttpError(405, "Use " + expected);
+        }
+    }
+
+    private static long sessionId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new NoSuchElementException("No session " + value);
+        }
+    }
+
+    private static SolverStrategy strategy(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "bfs" -> SolverStrategy.BFS;
+            case "bidirectional" -> SolverStrategy.BIDIRECTIONAL_BFS;
+            case "astar" -> SolverStrategy.A_STAR;
+            case "corridor" -> SolverStrategy.CORRIDOR_GRAPH;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int split = pair.indexOf('=');
+            String key = split < 0 ? pair : pair.substring(0, split);
+            String value = split < 0 ? "" : pair.substring(split + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> query, String name) {
+        long value = longParameter(query, name);
+        if (value != (int) value) {
+            throw new IllegalArgumentException(name + " is out of range");
+        }
+        return (int) value;
+    }
+
+    private static long longParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+    }
+
+    /**
+     * A request that fails with a specific status code.
+     */
+    private static final class HttpError extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        send(exchange, status, null, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package de.eisner.maze.ui;
+
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.Runner;
+
+import java.io.PrintStream;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Renders mazes to an ANSI terminal.
+ * Every frame is built in one reusable buffer and written with a single call.
+ * While the same runner moves through the same maze, only the runner's old and new cell are redrawn
+ * using cursor moves, so a move costs a constant amount of output instead of the whole grid.
+ * <p>
+ * A maze larger than the terminal is shown through a viewport around the runner next to a {@link Minimap}
+ * of the whole maze. The camera is centered on the runner again once it gets close to the edge of the viewport,
+ * so most moves still redraw two cells and no frame costs more than one screen, no matter how large the maze is.
+ * Without a terminal, e.g. when the output is redirected, mazes are always drawn in full.
+ * There is only one terminal, so frames from concurrent callers are drawn one after another.
+ */
+public class ConsoleRenderer {
+    private static final String CLEAR_SCREEN = "\033[H\033[2J";
+    private static final String CLEAR_BELOW = "\033[J";
+    private static final String REVERSE = "\033[7m";
+    private static final String RUNNER_MARK = "\033[1;31m@";
+    private static final String RESET = "\033[0m";
+
+    /** Lines below the runner view: the status line and the menu printed by the caller. */
+    private static final int FOOTER_LINES = 4;
+    private static final int MINIMAP_ROWS = 12;
+    private static final int MINIMAP_COLS = 24;
+    private static final int MINIMAP_GAP = 2;
+    /** Narrowest viewport, in cells, that still leaves room for the minimap. */
+    private static final int MIN_VIEW_COLS = 16;
+
+    private final PrintStream out;
+    private final Supplier<Optional<TerminalSize>> terminal;
+    private final StringBuilder frame = new StringBuilder();
+    private Maze shownMaze;
+    private Runner shownRunner;
+    private int shownRow;
+    private int shownCol;
+
+    /** The runner view is cut to a viewport; the fields below are only valid then. */
+    private boolean viewport;
+    private int viewRows;
+    private int viewCols;
+    private int top;
+    private int left;
+    private Minimap minimap;
+
+    public ConsoleRenderer() {
+        this(System.out);
+    }
+
+    public ConsoleRenderer(PrintStream out) {
+        this(out, TerminalSize::detect);
+    }
+
+    /**
+     * @param out The stream to draw to.
+     * @param size The fixed terminal size to fit frames into.
+     */
+    public ConsoleRenderer(PrintStream out, TerminalSize size) {
+        this(out, () -> Optional.of(size));
+    }
+
+    private ConsoleRenderer(PrintStream out, Supplier<Optional<TerminalSize>> terminal) {
+        this.out = out;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Prints the whole maze at the current cursor position, or an overview of it if the maze is larger
+     * than the terminal. The next runner frame is drawn in full again.
+     * @param maze The maze to display.
+     */
+    public synchronized void renderMaze(Maze maze) {
+        frame.setLength(0);
+        Optional<TerminalSize> size = terminal.get();
+        if (size.isEmpty() || fits(maze, size.get(), 1)) {
+            appendMaze(maze, -1, -1);
+        } else {
+            // One line for the caption and one for the next prompt
+            Minimap overview = Minimap.of(maze, Math.max(1, size.get().rows() - 2), size.get().columns());
+            String lineSeparator = System.lineSeparator();
+            for (int r = 0; r < overview.rows(); r++) {
+                for (int c = 0; c < overview.cols(); c++) {
+                    frame.append(overview.charAt(r, c));
+                }
+                frame.append(lineSeparator);
+            }
+            frame.append("Overview of the ").append(maze.rows()).append('x').append(maze.cols())
+                    .append(" maze, one character per ").append(overview.rowsPerChar()).append('x')
+                    .append(overview.colsPerChar()).append(" cells").append(lineSeparator);
+        }
+        flush();
+        shownMaze = null;
+    }
+
+    /**
+     * Draws the maze with the runner on a cleared screen, or only the cells that changed since the
+     * previous frame of the same runner in the same maze. The cursor is left below the maze.
+     * @param maze The maze to display.
+     * @param runner The runner to overlay.
+     */
+    public synchronized void renderWithRunner(Maze maze, Runner runner) {
+        frame.setLength(0);
+
+        if (maze != shownMaze || runner != shownRunner) {
+            Optional<TerminalSize> size = terminal.get();
+            viewport = size.isPresent() && !fits(maze, size.get(), FOOTER_LINES);
+            frame.append(CLEAR_SCREEN);
+            if (viewport) {
+                layOut(maze, runner, size.get());
+                appendViewport(maze, runner);
+            } else {
+                appendMaze(maze, runner.getRow(), runner.getCol());
+            }
+        } else if (viewport) {
+            updateViewport(maze, runner);
+        } else {
+            if (runner.getRow() != shownRow || runner.getCol() != shownCol) {
+                moveTo(shownRow, shownCol * 2).append(TileType.of(maze.get(shownRow, shownCol)));
+                moveTo(runner.getRow(), runner.getCol() * 2).append(TileType.RUNNER);
+            }
+            moveTo(maze.rows(), 0).append(CLEAR_BELOW);
+        }
+        flush();
+
+        shownMaze = maze;
+        shownRunner = runner;
+        shownRow = runner.getRow();
+        shownCol = runner.getCol();
+    }
+
+    /**
+     * Forgets the last frame, e.g. after other output has overwritten the screen.
+     */
+    public synchronized void reset() {
+        shownMaze = null;
+        shownRunner = null;
+    }
+
+    private static boolean fits(Maze maze, TerminalSize size, int footerLines) {
+        return maze.rows() + footerLines <= size.rows() && 2L * maze.cols() <= size.columns();
+    }
+
+    /**
+     * Sizes the viewport and the minimap for the terminal and centers the camera on the runner.
+     */
+    private void layOut(Maze maze, Runner runner, TerminalSize size) {
+        viewRows = Math.max(1, Math.min(maze.rows(), size.rows() - FOOTER_LINES));
+        int freeColumns = size.columns() - MINIMAP_COLS - MINIMAP_GAP;
+        minimap = freeColumns >= 2 * MIN_VIEW_COLS
+                ? Minimap.of(maze, Math.min(MINIMAP_ROWS, viewRows), MINIMAP_COLS)
+                : null;
+        viewCols = Math.max(1, Math.min(maze.cols(), (minimap != null ? freeColumns : size.columns()) / 2));
+        top = clamp(runner.getRow() - viewRows / 2, viewRows, maze.rows());
+        left = clamp(runner.getCol() - viewCols / 2, viewCols, maze.cols());
+    }
+
+    /**
+     * Redraws the two cells the runner moved between, or the whole viewport if the camera had to follow.
+     * The minimap is redrawn when the runner enters another block of it.
+     */
+    private void updateViewport(Maze maze, Runner runner) {
+        int newTop = follow(top, runner.getRow(), viewRows, maze.rows());
+        int newLeft = follow(left, runner.getCol(), viewCols, maze.cols());
+        if (newTop != top || newLeft != left) {
+            top = newTop;
+            left = newLeft;
+            frame.append("\033[H");
+            appendViewport(maze, runner);
+            return;
+        }
+
+        if (runner.getRow() != shownRow || runner.getCol() != shownCol) {
+            moveTo(shownRow - top, (shownCol - left) * 2).append(TileType.of(maze.get(shownRow, shownCol)));
+            moveTo(runner.getRow() - top, (runner.getCol() - left) * 2).append(TileType.RUNNER);
+            if (minimap != null && (minimap.rowOf(shownRow) != minimap.rowOf(runner.getRow())
+                    || minimap.colOf(shownCol) != minimap.colOf(runner.getCol()))) {
+                for (int r = 0; r < minimap.rows(); r++) {
+                    moveTo(r, viewCols * 2 + MINIMAP_GAP);
+                    appendMinimapRow(r, runner);
+                }
+            }
+        }
+        moveTo(viewRows, 0).append(CLEAR_BELOW);
+        appendStatus(maze, runner);
+    }
+
+    /**
+     * Appends every line of the viewport with the minimap beside it, followed by the status line.
+     * Lines are overwritten in place, so a scrolled frame needs no clearing.
+     */
+    private void appendViewport(Maze maze, Runner runner) {
+        String lineSeparator = System.lineSeparator();
+        for (int r = 0; r < viewRows; r++) {
+            int row = top + r;
+            for (int c = 0; c < viewCols; c++) {
+                int col = left + c;
+                if (row == runner.getRow() && col == runner.getCol()) {
+                    frame.append(TileType.RUNNER);
+                } else {
+                    frame.append(TileType.of(maze.get(row, col)));
+                }
+            }
+            if (minimap != null && r < minimap.rows()) {
+                frame.repeat(' ', MINIMAP_GAP);
+                appendMinimapRow(r, runner);
+            }
+            frame.append(lineSeparator);
+        }
+        frame.append(CLEAR_BELOW);
+        appendStatus(maze, runner);
+    }
+
+    /**
+     * Appends one line of the minimap with the viewport in reverse video and the runner as a red mark.
+     */
+    private void appendMinimapRow(int r, Runner runner) {
+        boolean rowInView = r >= minimap.rowOf(top) && r <= minimap.rowOf(top + viewRows - 1);
+        int firstInView = minimap.colOf(left);
+        int lastInView = minimap.colOf(left + viewCols - 1);
+        for (int c = 0; c < minimap.cols(); c++) {
+            if (r == minimap.rowOf(runner.getRow()) && c == minimap.colOf(runner.getCol())) {
+                frame.append(RUNNER_MARK).append(RESET);
+            } else if (rowInView && c >= firstInView && c <= lastInView) {
+                frame.append(REVERSE).append(minimap.charAt(r, c)).append(RESET);
+            } else {
+                frame.append(minimap.charAt(r, c));
+            }
+        }
+    }
+
+    private void appendStatus(Maze maze, Runner runner) {
+        frame.append("Position ").append(runner.getRow()).append(',').append(runner.getCol())
+                .append(" of ").append(maze.rows()).append('x').append(maze.cols())
+                .append(System.lineSeparator());
+    }
+
+    /**
+     * Centers the camera on the position if it came closer than an eighth of the view to an edge.
+     * Jumping instead of scrolling by single cells keeps full redraws rare.
+     */
+    private static int follow(int camera, int position, int view, int size) {
+        int margin = view / 8;
+        if (position < camera + margin || position >= camera + view - margin) {
+            camera = position - view / 2;
+        }
+        return clamp(camera, view, size);
+    }
+
+    private static int clamp(int camera, int view, int size) {
+        return Math.max(0, Math.min(camera, size - view));
+    }
+
+    private void appendMaze(Maze maze, int runnerRow, int runnerCol) {
+        String lineSeparator = System.lineSeparator();
+        for (int r = 0; r < maze.rows(); r++) {
+            for (int c = 0; c < maze.cols(); c++) {
+                if (r == runnerRow && c == runnerCol) {
+                    frame.append(TileType.RUNNER);
+                } else {
+                    frame.append(TileType.of(maze.get(r, c)));
+                }
+            }
+            frame.append(lineSeparator);
+        }
+    }
+
+    /**
+     * Appends an absolute cursor move; terminal coordinates are 1-based.
+     */
+    private StringBuilder moveTo(int line, int column) {
+        return frame.append("\033[").append(line + 1).append(';').append(column + 1).append('H');
+    }
+
+    private void flush() {
+        out.append(frame);
+        out.flush();
+    }
+}
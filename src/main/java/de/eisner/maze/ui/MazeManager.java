@@ -1,6 +1,7 @@
 package de.eisner.maze.ui;
 
 import de.eisner.maze.logic.service.MazeService;
+import de.eisner.maze.logic.solver.DistanceField;
 import de.eisner.maze.logic.service.MazeServiceImpl;
 import de.eisner.maze.model.Maze;
 import de.eisner.maze.model.Point;
@@ -23,7 +24,8 @@ public class MazeManager {
                     "Save the maze",
                     "Display the maze",
                     "Find the escape",
-                    "Run the maze"
+                    "Run the maze",
+                    "Edit the maze"
             )
     );
     private final int MENU_SIZE_IF_MAZE_NULL = 2;
@@ -36,7 +38,7 @@ public class MazeManager {
     }
 
     private void generateMaze() throws NumberFormatException {
-        System.out.println("Enter the size of a new maze");
+        System.out.println("Enter the size of a new maze (optionally followed by a seed)");
         String[] input = scanner.nextLine().trim().split(" ");
 
         int row;
@@ -52,7 +54,9 @@ public class MazeManager {
         row = row <= 0 ? 10 : row;
         col = col <= 0 ? 10 : col;
 
-        var newMaze = service.generateMaze(row, col);
+        var newMaze = input.length > 2
+                ? service.generateMaze(row, col, Long.parseLong(input[2]))
+                : service.generateMaze(row, col);
         newMaze.ifPresentOrElse(
                 m -> {
                     maze = m;
@@ -65,8 +69,21 @@ public class MazeManager {
     private void loadMaze() throws FileNotFoundException {
         System.out.println("Enter the file path: ");
         String filePath = scanner.nextLine().trim();
-        var loadedMaze = service.load(filePath);
-        loadedMaze.ifPresent(m -> maze = m);
+        var loadedMaze = service.open(filePath);
+        loadedMaze.ifPresent(m -> {
+            maze = m;
+            if (isReadOnly()) {
+                System.out.printf("Opened the %dx%d maze in tiles; it is read from the file while you move.%n",
+                        m.rows(), m.cols());
+            }
+        });
+    }
+
+    /**
+     * A maze opened in tiles may not fit into memory, so options that need the whole grid at once are skipped.
+     */
+    private boolean isReadOnly() {
+        return service.isReadOnly(maze);
     }
 
     private void saveMaze() {
@@ -84,6 +101,10 @@ public class MazeManager {
     }
 
     private void findTheEscape() {
+        if (isReadOnly()) {
+            System.out.println("The maze is too large to be solved at once.");
+            return;
+        }
         var mazeWithPath = service.findPath(maze);
         mazeWithPath.ifPresentOrElse(
                 service::displayMaze,
@@ -105,7 +126,8 @@ public class MazeManager {
     /**
      * Starts the interactive 'Maze Runner' mode.
      * Allows the user to move through the maze using WASD keys.
-     * Provides options to reveal the path or return to the menu.
+     * Shows the next step and the remaining distance after every move, looked up in a distance field
+     * that is computed once per run. Provides options to reveal the path or return to the menu.
      */
     private void runTheMaze() {
         if (maze == null) return;
@@ -115,6 +137,7 @@ public class MazeManager {
 
         Runner runner = new Runner(exits.getFirst());
         Point target = exits.getLast();
+        DistanceField hints = isReadOnly() ? null : service.distanceField(maze, target);
 
         while (true) {
             service.displayMazeWithRunner(maze, runner);
@@ -126,13 +149,18 @@ public class MazeManager {
                 break;
             }
 
-            System.out.println("W/A/S/D - Move | 1 - Show Path | 0 - Back to Menu");
+            if (hints != null) {
+                System.out.println(hint(hints, runner));
+                System.out.println("W/A/S/D - Move | 1 - Show Path | 0 - Back to Menu");
+            } else {
+                System.out.println("W/A/S/D - Move | 0 - Back to Menu");
+            }
             String input = scanner.nextLine().trim().toLowerCase();
 
             if ("0".equals(input)) break;
 
-            if ("1".equals(input)) {
-                var solved = service.findPath(maze);
+            if ("1".equals(input) && hints != null) {
+                var solved = hints.markPath(maze, new Point(runner.getRow(), runner.getCol()));
                 solved.ifPresent(service::displayMaze);
                 System.out.println("Path revealed. Game over. Press Enter...");
                 scanner.nextLine();
@@ -148,6 +176,61 @@ public class MazeManager {
         }
     }
 
+    /**
+     * Lets the user toggle single cells between wall and passage.
+     * The escape is re-solved after every edit; only the part of the search affected by the edit is repeated.
+     */
+    private void editMaze() {
+        if (isReadOnly()) {
+            System.out.println("Mazes opened in tiles are read-only.");
+            return;
+        }
+        var solver = service.incrementalSolver(maze);
+        if (solver.isEmpty()) {
+            System.out.println("The maze needs an entry and an exit to be edited.");
+            return;
+        }
+
+        while (true) {
+            System.out.println("Enter row and column of the cell to toggle (empty line to finish)");
+            String[] input = scanner.nextLine().trim().split(" ");
+            if (input[0].isEmpty()) break;
+            if (input.length < 2) {
+                System.out.println("Please enter a row and a column.");
+                continue;
+            }
+
+            int row = Integer.parseInt(input[0]);
+            int col = Integer.parseInt(input[1]);
+            if (row < 0 || col < 0 || row >= maze.rows() || col >= maze.cols()) {
+                System.out.println("The cell is outside the maze.");
+                continue;
+            }
+
+            solver.get().toggleWall(row, col);
+            solver.get().markPath().ifPresentOrElse(
+                    service::displayMaze,
+                    () -> {
+                        service.displayMaze(maze);
+                        System.out.println("Couldn't find the escape!");
+                    }
+            );
+        }
+    }
+
+    private String hint(DistanceField hints, Runner runner) {
+        int distance = hints.distance(runner.getRow(), runner.getCol());
+        return hints.nextStep(runner.getRow(), runner.getCol())
+                .map(next -> {
+                    String key = next.row() < runner.getRow() ? "W"
+                            : next.row() > runner.getRow() ? "S"
+                            : next.col() < runner.getCol() ? "A"
+                            : "D";
+                    return "Hint: " + key + " | " + distance + " steps to the exit";
+                })
+                .orElse("Hint: no way to the exit from here");
+    }
+
     /**
      * Starts the main menu loop and waits for user interaction.
      */
@@ -177,6 +260,7 @@ public class MazeManager {
                     case 4 -> displayMaze();
                     case 5 -> findTheEscape();
                     case 6 -> runTheMaze();
+                    case 7 -> editMaze();
                 }
             } catch (NumberFormatException nfe) {
                 System.out.println("Wrong input! Please enter only integer!");
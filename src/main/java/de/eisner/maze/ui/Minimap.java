@@ -0,0 +1,124 @@
+package de.eisner.maze.ui;
+
+import de.eisner.maze.model.Maze;
+
+/**
+ * Downsampled picture of a whole maze, one character per block of cells.
+ * <p>
+ * A block is shaded by the share of walls in a few runs of adjacent cells taken from evenly spread pairs of
+ * rows, or drawn as a path if a sampled cell lies on the marked path. Pairs of rows keep carved mazes, whose
+ * wall rows and passage rows alternate, from turning into stripes. The number of runs is bounded, so building
+ * the map costs the same for every maze size. Each run stays within one row segment, which keeps the number
+ * of tiles touched low for a maze that is read from a file in tiles.
+ * Blocks cover half as many columns as rows, since a character is about half as wide as it is tall.
+ */
+final class Minimap {
+    /** Upper bound of sampled pairs of rows over all blocks. */
+    private static final int MAX_RUNS = 1 << 10;
+    /** Longest run of adjacent cells sampled per row. */
+    private static final int RUN_LENGTH = 64;
+    private static final char[] SHADES = {' ', '\u2591', '\u2592', '\u2593', '\u2588'};
+    private static final char PATH = '/';
+
+    private final int rows;
+    private final int cols;
+    private final long rowsPerChar;
+    private final long colsPerChar;
+    private final char[] shades;
+
+    private Minimap(int rows, int cols, long rowsPerChar, long colsPerChar, char[] shades) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowsPerChar = rowsPerChar;
+        this.colsPerChar = colsPerChar;
+        this.shades = shades;
+    }
+
+    /**
+     * Samples the maze into a map of at most the given size.
+     * @param maze The maze to sample.
+     * @param maxRows Lines available for the map.
+     * @param maxCols Characters available per line.
+     */
+    static Minimap of(Maze maze, int maxRows, int maxCols) {
+        long scale = Math.max(1, Math.max(ceilDiv(maze.rows(), maxRows), ceilDiv(2L * maze.cols(), maxCols)));
+        long rowsPerChar = scale;
+        long colsPerChar = Math.max(1, ceilDiv(scale, 2));
+        int rows = (int) ceilDiv(maze.rows(), rowsPerChar);
+        int cols = (int) ceilDiv(maze.cols(), colsPerChar);
+
+        int runsPerBlock = Math.max(1, MAX_RUNS / (rows * cols));
+        char[] shades = new char[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                shades[r * cols + c] = sample(maze, r * rowsPerChar, c * colsPerChar,
+                        rowsPerChar, colsPerChar, runsPerBlock);
+            }
+        }
+        return new Minimap(rows, cols, rowsPerChar, colsPerChar, shades);
+    }
+
+    private static char sample(Maze maze, long firstRow, long firstCol, long height, long width, int runs) {
+        height = Math.min(height, maze.rows() - firstRow);
+        width = Math.min(width, maze.cols() - firstCol);
+        int sampleRows = (int) Math.min(runs, height);
+        int runLength = (int) Math.min(RUN_LENGTH, width);
+        int firstSampleCol = (int) (firstCol + (width - runLength) / 2);
+
+        int walls = 0;
+        int samples = 0;
+        for (int i = 0; i < sampleRows; i++) {
+            int first = (int) (firstRow + height * (2L * i + 1) / (2L * sampleRows));
+            int last = (int) Math.min(first + 1, firstRow + height - 1);
+            for (int row = first; row <= last; row++) {
+                for (int col = firstSampleCol; col < firstSampleCol + runLength; col++) {
+                    int tile = maze.get(row, col);
+                    if (tile == 2) {
+                        return PATH;
+                    }
+                    walls += tile;
+                }
+                samples += runLength;
+            }
+        }
+        return SHADES[(walls * (SHADES.length - 1) + samples / 2) / samples];
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int cols() {
+        return cols;
+    }
+
+    char charAt(int row, int col) {
+        return shades[row * cols + col];
+    }
+
+    /**
+     * @return The map line that contains the maze row.
+     */
+    int rowOf(int mazeRow) {
+        return (int) (mazeRow / rowsPerChar);
+    }
+
+    /**
+     * @return The map column that contains the maze column.
+     */
+    int colOf(int mazeCol) {
+        return (int) (mazeCol / colsPerChar);
+    }
+
+    long rowsPerChar() {
+        return rowsPerChar;
+    }
+
+    long colsPerChar() {
+        return colsPerChar;
+    }
+}
@@ -0,0 +1,66 @@
+package de.eisner.maze.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * The visible size of the terminal in lines and character columns.
+ * @param rows Number of lines.
+ * @param columns Number of character columns.
+ */
+public record TerminalSize(int rows, int columns) {
+    /** Assumed when the output is a terminal whose size cannot be queried. */
+    public static final TerminalSize DEFAULT = new TerminalSize(24, 80);
+
+    /**
+     * Determines the size of the terminal the program writes to. The {@code LINES} and {@code COLUMNS}
+     * environment variables take precedence; otherwise {@code stty size} is asked on Unix-like systems.
+     * @return The terminal size, or empty if the output is not a terminal, e.g. redirected to a file,
+     *         in which case nothing should be cut off.
+     */
+    public static Optional<TerminalSize> detect() {
+        if (System.console() == null) {
+            return Optional.empty();
+        }
+        return parse(System.getenv("LINES"), System.getenv("COLUMNS"))
+                .or(TerminalSize::fromStty)
+                .or(() -> Optional.of(DEFAULT));
+    }
+
+    private static Optional<TerminalSize> fromStty() {
+        File tty = new File("/dev/tty");
+        if (!tty.exists()) {
+            return Optional.empty();
+        }
+        try {
+            Process stty = new ProcessBuilder("stty", "size")
+                    .redirectInput(tty)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String[] size = new String(stty.getInputStream().readAllBytes(), StandardCharsets.US_ASCII)
+                    .trim()
+                    .split("\\s+");
+            return stty.waitFor() == 0 && size.length == 2 ? parse(size[0], size[1]) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<TerminalSize> parse(String rows, String columns) {
+        if (rows == null || columns == null) {
+            return Optional.empty();
+        }
+        try {
+            int r = Integer.parseInt(rows.trim());
+            int c = Integer.parseInt(columns.trim());
+            return r > 0 && c > 0 ? Optional.of(new TerminalSize(r, c)) : Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
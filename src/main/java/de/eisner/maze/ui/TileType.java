@@ -19,6 +19,18 @@ public enum TileType {
         this.symbol = symbol;
     }
 
+    /**
+     * @param tile A maze tile value: 0=Pass, 1=Wall, 2=Path.
+     * @return The matching tile type.
+     */
+    public static TileType of(int tile) {
+        return tile == 0
+                ? PASS
+                : tile == 1
+                ? WALL
+                : PATH;
+    }
+
     @Override
     public String toString() {
         return symbol;
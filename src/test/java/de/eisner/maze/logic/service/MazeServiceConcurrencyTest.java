@@ -0,0 +1,205 @@
+package de.eisner.maze.logic.service;
+
+import de.eisner.maze.logic.PathFinder;
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.MazeSnapshot;
+import de.eisner.maze.model.Point;
+import de.eisner.maze.model.Runner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the service from many threads and compares every result with a single-threaded run.
+ */
+class MazeServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final SolverStrategy[] STRATEGIES = {
+            SolverStrategy.BFS, SolverStrategy.BIDIRECTIONAL_BFS, SolverStrategy.A_STAR, SolverStrategy.CORRIDOR_GRAPH
+    };
+
+    @Test
+    void concurrentMovesMatchSingleThreadedReplay() throws Exception {
+        MazeService service = new MazeServiceImpl();
+        Maze maze = MazeSnapshot.of(service.generateMaze(101, 101, 5L).orElseThrow());
+        int sessions = 2000;
+        int steps = 500;
+        long[] ids = new long[sessions];
+        for (int i = 0; i < sessions; i++) {
+            ids[i] = service.openSession(maze).orElseThrow().id();
+        }
+
+        // Every session is moved by one thread, while the threads share the registry
+        runConcurrently(thread -> {
+            for (int step = 0; step < steps; step++) {
+                for (int i = thread; i < sessions; i += THREADS) {
+                    int[] direction = direction(ids[i], step);
+                    service.move(ids[i], direction[0], direction[1]);
+                }
+            }
+            return null;
+        });
+
+        Point start = service.getExits(maze).getFirst();
+        for (int i = 0; i < sessions; i++) {
+            Runner runner = new Runner(start);
+            long moves = 0;
+            for (int step = 0; step < steps; step++) {
+                int row = runner.getRow();
+                int col = runner.getCol();
+                int[] direction = direction(ids[i], step);
+                runner.move(direction[0], direction[1], maze);
+                if (runner.getRow() != row || runner.getCol() != col) {
+                    moves++;
+                }
+            }
+            SessionState state = service.sessionState(ids[i]).orElseThrow();
+            assertEquals(runner.getRow(), state.row(), "row of session " + ids[i]);
+            assertEquals(runner.getCol(), state.col(), "column of session " + ids[i]);
+            assertEquals(moves, state.moves(), "moves of session " + ids[i]);
+        }
+        assertEquals(sessions, service.sessionCount());
+    }
+
+    @Test
+    void concurrentCachedSolvesMatchUncached() throws Exception {
+        MazeService service = new MazeServiceImpl();
+        List<Maze> mazes = mazes(service, 8);
+        long[][] expected = uncachedSolutions(mazes);
+
+        List<Integer> mismatches = runConcurrently(thread -> solveAll(service, mazes, expected, thread, 200));
+
+        assertEquals(0, mismatches.stream().mapToInt(Integer::intValue).sum());
+        CacheStats stats = service.solutionCacheStats();
+        assertEquals(mazes.size() * STRATEGIES.length, stats.entries());
+        assertEquals(0, stats.evictions());
+        assertTrue(stats.hits() > stats.misses());
+    }
+
+    @Test
+    void concurrentSolvesMatchUncachedWhileEvictingAcrossStripes() throws Exception {
+        // An 81x81 solution weighs about 1.8 KB, so the budget holds a tenth of the 128 solves
+        MazeService service = new MazeServiceImpl(24 * 1024);
+        List<Maze> mazes = mazes(service, 32);
+        long[][] expected = uncachedSolutions(mazes);
+
+        List<Integer> mismatches = runConcurrently(thread -> solveAll(service, mazes, expected, thread, 400));
+
+        assertEquals(0, mismatches.stream().mapToInt(Integer::intValue).sum());
+        CacheStats stats = service.solutionCacheStats();
+        assertTrue(stats.evictions() > 0);
+        assertTrue(stats.weightBytes() <= 24 * 1024, "weight " + stats.weightBytes());
+    }
+
+    @Test
+    void sharedBudgetKeepsLargeEntriesAndTracksWeight() throws Exception {
+        long budget = 1_000_000;
+        SolutionCache cache = new SolutionCache(budget);
+        // About 900 KB, far more than an eighth of the budget
+        SolutionCache.Key large = new SolutionCache.Key(1900, 1900, 42, 0, 1, SolverStrategy.BFS);
+        cache.put(large, Optional.empty());
+        assertNotNull(cache.lookup(large));
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 20_000; i++) {
+                cache.put(new SolutionCache.Key(100, 100, thread * 100_000L + i, 0, 1, SolverStrategy.BFS),
+                        Optional.empty());
+            }
+            return null;
+        });
+
+        CacheStats stats = cache.stats();
+        // Every remaining entry is a 100x100 solve of 128 + 2500 bytes
+        assertEquals((long) stats.entries() * (128 + 2500), stats.weightBytes());
+        assertTrue(stats.weightBytes() <= budget, "weight " + stats.weightBytes());
+        assertTrue(stats.evictions() > 0);
+    }
+
+    private static List<Maze> mazes(MazeService service, int count) {
+        List<Maze> mazes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            mazes.add(MazeSnapshot.of(service.generateMaze(81, 81, i).orElseThrow()));
+        }
+        return mazes;
+    }
+
+    /**
+     * @return The content hash of every solved maze per maze and strategy, solved without the cache.
+     */
+    private static long[][] uncachedSolutions(List<Maze> mazes) {
+        PathFinder pathFinder = new PathFinder();
+        long[][] expected = new long[mazes.size()][STRATEGIES.length];
+        for (int i = 0; i < mazes.size(); i++) {
+            for (int s = 0; s < STRATEGIES.length; s++) {
+                expected[i][s] = pathFinder.findPath(mazes.get(i), STRATEGIES[s]).orElseThrow().contentHash();
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Solves the mazes in an order that depends on the thread, so threads hit and evict different entries.
+     * @return The number of solves that differ from the uncached result.
+     */
+    private static int solveAll(MazeService service, List<Maze> mazes, long[][] expected,
+                                int thread, int solves) {
+        int mismatches = 0;
+        for (int k = 0; k < solves; k++) {
+            int i = (thread * 7 + k) % mazes.size();
+            int s = (thread + k / mazes.size()) % STRATEGIES.length;
+            Optional<Maze> solved = service.findPath(mazes.get(i), STRATEGIES[s]);
+            if (solved.isEmpty() || solved.get().contentHash() != expected[i][s]) {
+                mismatches++;
+            }
+            // Callers get their own copy, so altering it must not reach the cache
+            solved.ifPresent(copy -> copy.set(0, 0, 2));
+        }
+        return mismatches;
+    }
+
+    private static int[] direction(long sessionId, int step) {
+        return switch ((int) ((sessionId * 31 + step) % 4)) {
+            case 0 -> new int[]{-1, 0};
+            case 1 -> new int[]{1, 0};
+            case 2 -> new int[]{0, -1};
+            default -> new int[]{0, 1};
+        };
+    }
+
+    private interface Task<T> {
+        T run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs the task on {@value #THREADS} threads at once.
+     * @return The result of every thread.
+     */
+    private static <T> List<T> runConcurrently(Task<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<T>> calls = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                calls.add(() -> task.run(thread));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> result : executor.invokeAll(calls)) {
+                results.add(result.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
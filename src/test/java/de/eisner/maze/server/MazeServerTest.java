@@ -0,0 +1,245 @@
+package de.eisner.maze.server;
+
+import de.eisner.maze.logic.service.MazeService;
+import de.eisner.maze.logic.service.MazeServiceImpl;
+import de.eisner.maze.logic.solver.SolverStrategy;
+import de.eisner.maze.model.Maze;
+import de.eisner.maze.model.Point;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Talks to a running server over HTTP and checks the answers against the service used directly.
+ */
+class MazeServerTest {
+    private static final int MAX_SESSIONS = 4;
+
+    @TempDir
+    Path mazeDirectory;
+
+    private final MazeService service = new MazeServiceImpl();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private MazeServer server;
+    private URI base;
+
+    @BeforeEach
+    void start() throws IOException, URISyntaxException {
+        server = new MazeServer(service, mazeDirectory, MAX_SESSIONS);
+        base = sessions(server.start(0));
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void generatedMazeRoundTripsThroughBinaryFormat() throws Exception {
+        HttpResponse<byte[]> response = send("POST", "?rows=41&cols=61&seed=7");
+        assertEquals(200, response.statusCode());
+        assertEquals("application/octet-stream", response.headers().firstValue("Content-Type").orElseThrow());
+
+        Maze expected = service.generateMaze(41, 61, 7L).orElseThrow();
+        Maze received = decode(response.body());
+        assertEquals(41, received.rows());
+        assertEquals(61, received.cols());
+        assertEquals(expected.contentHash(), received.contentHash());
+
+        long id = sessionId(response);
+        HttpResponse<byte[]> again = send("GET", "/" + id + "/maze");
+        assertEquals(200, again.statusCode());
+        assertArrayEquals(response.body(), again.body());
+    }
+
+    @Test
+    void solutionEqualsBreadthFirstSearch() throws Exception {
+        HttpResponse<byte[]> opened = send("POST", "?rows=51&cols=51&seed=3");
+        long id = sessionId(opened);
+        Maze maze = decode(opened.body());
+        Maze solved = service.findPath(maze, SolverStrategy.BFS).orElseThrow();
+        int[] expected = MazeServer.orderedPath(solved, service.getExits(maze).getFirst());
+
+        assertArrayEquals(expected, path(send("GET", "/" + id + "/solution")));
+        for (String strategy : new String[]{"bidirectional", "astar", "corridor"}) {
+            int[] path = path(send("GET", "/" + id + "/solution?strategy=" + strategy));
+            assertEquals(expected.length, path.length, strategy);
+            assertEquals(expected[0], path[0], strategy);
+            assertEquals(expected[expected.length - 1], path[path.length - 1], strategy);
+        }
+    }
+
+    @Test
+    void replayingSolutionReachesExit() throws Exception {
+        HttpResponse<byte[]> opened = send("POST", "?rows=31&cols=45&seed=11");
+        long id = sessionId(opened);
+        int cols = decode(opened.body()).cols();
+        int[] path = path(send("GET", "/" + id + "/solution"));
+        assertEquals(point(opened, "X-Start"), point(cols, path[0]));
+
+        byte[] answer = null;
+        for (int i = 1; i < path.length; i++) {
+            int dRow = path[i] / cols - path[i - 1] / cols;
+            int dCol = path[i] % cols - path[i - 1] % cols;
+            String dir = dRow < 0 ? "up" : dRow > 0 ? "down" : dCol < 0 ? "left" : "right";
+            HttpResponse<byte[]> moved = send("POST", "/" + id + "/move?dir=" + dir);
+            assertEquals(200, moved.statusCode());
+            answer = moved.body();
+            assertEquals(dRow, answer[0]);
+            assertEquals(dCol, answer[1]);
+            assertEquals(i == path.length - 1 ? 1 : 0, answer[2]);
+        }
+        assertTrue(answer != null && answer[2] == 1);
+        assertEquals(point(opened, "X-Target"), point(cols, path[path.length - 1]));
+
+        // A wall stops the runner without an error
+        byte[] blocked = send("POST", "/" + id + "/move?dir=" + blockedDirection(opened)).body();
+        assertArrayEquals(new byte[]{0, 0, 1}, blocked);
+    }
+
+    @Test
+    void loadsMazesOnlyFromTheMazeDirectory() throws Exception {
+        Maze maze = service.generateMaze(21, 21, 5L).orElseThrow();
+        assertTrue(service.save(mazeDirectory.resolve("stored.mzb").toString(), maze));
+
+        HttpResponse<byte[]> loaded = send("POST", "?file=stored.mzb");
+        assertEquals(200, loaded.statusCode());
+        assertEquals(maze.contentHash(), decode(loaded.body()).contentHash());
+
+        assertEquals(400, send("POST", "?file=..%2Foutside.mzb").statusCode());
+        assertEquals(404, send("POST", "?file=missing.mzb").statusCode());
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws Exception {
+        HttpResponse<byte[]> tooSmall = send("POST", "?rows=2&cols=2");
+        assertEquals(400, tooSmall.statusCode());
+        assertEquals("A maze needs at least 3 rows and 3 columns", text(tooSmall));
+        assertEquals(200, send("POST", "?rows=3&cols=3").statusCode());
+        assertEquals(400, send("POST", "?rows=5000&cols=5000").statusCode());
+        assertEquals(400, send("POST", "?rows=ten&cols=10").statusCode());
+        assertEquals(400, send("POST", "?rows=10").statusCode());
+
+        long id = sessionId(send("POST", "?rows=11&cols=11"));
+        assertEquals(400, send("POST", "/" + id + "/move?dir=north").statusCode());
+        assertEquals(400, send("GET", "/" + id + "/solution?strategy=dfs").statusCode());
+
+        assertEquals(404, send("GET", "/12345/maze").statusCode());
+        assertEquals(404, send("GET", "/abc/maze").statusCode());
+        assertEquals(404, send("GET", "/" + id + "/unknown").statusCode());
+        assertEquals(404, send("GET", "s").statusCode());
+
+        assertEquals(405, send("GET", "").statusCode());
+        assertEquals(405, send("GET", "/" + id + "/move?dir=up").statusCode());
+        assertEquals(405, send("POST", "/" + id + "/maze").statusCode());
+
+        assertEquals(204, send("DELETE", "/" + id).statusCode());
+        assertEquals(404, send("DELETE", "/" + id).statusCode());
+        assertEquals(404, send("POST", "/" + id + "/move?dir=up").statusCode());
+    }
+
+    @Test
+    void refusesFileRequestsWithoutMazeDirectory() throws Exception {
+        MazeServer withoutFiles = new MazeServer(service, null);
+        URI sessions = sessions(withoutFiles.start(0));
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(sessions + "?file=a.mzb"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            assertEquals(403, client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode());
+        } finally {
+            withoutFiles.stop();
+        }
+    }
+
+    @Test
+    void refusesSessionsBeyondTheLimit() throws Exception {
+        long first = 0;
+        for (int i = 0; i < MAX_SESSIONS; i++) {
+            long id = sessionId(send("POST", "?rows=9&cols=9"));
+            first = i == 0 ? id : first;
+        }
+        assertEquals(503, send("POST", "?rows=9&cols=9").statusCode());
+
+        assertEquals(204, send("DELETE", "/" + first).statusCode());
+        assertEquals(200, send("POST", "?rows=9&cols=9").statusCode());
+    }
+
+    private static URI sessions(InetSocketAddress address) throws URISyntaxException {
+        return new URI("http", null, address.getHostString(), address.getPort(), "/sessions", null, null);
+    }
+
+    private HttpResponse<byte[]> send(String method, String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + pathAndQuery))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private Maze decode(byte[] body) throws IOException {
+        Path file = Files.createTempFile(mazeDirectory, "received", ".mzb");
+        Files.write(file, body);
+        return service.load(file.toString()).orElseThrow();
+    }
+
+    /**
+     * @return A direction in which the target has a wall or the border next to it.
+     */
+    private String blockedDirection(HttpResponse<byte[]> opened) throws IOException {
+        Maze maze = decode(opened.body());
+        Point target = point(opened, "X-Target");
+        int row = target.row();
+        int col = target.col();
+        if (row == 0 || maze.isWall(row - 1, col)) {
+            return "up";
+        } else if (row == maze.rows() - 1 || maze.isWall(row + 1, col)) {
+            return "down";
+        } else if (col == 0 || maze.isWall(row, col - 1)) {
+            return "left";
+        }
+        return "right";
+    }
+
+    private static long sessionId(HttpResponse<byte[]> response) {
+        assertEquals(200, response.statusCode(), () -> text(response));
+        return Long.parseLong(response.headers().firstValue("X-Session-Id").orElseThrow());
+    }
+
+    private static Point point(HttpResponse<byte[]> response, String header) {
+        String[] position = response.headers().firstValue(header).orElseThrow().split(",");
+        return new Point(Integer.parseInt(position[0]), Integer.parseInt(position[1]));
+    }
+
+    private static Point point(int cols, int index) {
+        return new Point(index / cols, index % cols);
+    }
+
+    private static int[] path(HttpResponse<byte[]> response) {
+        assertEquals(200, response.statusCode(), () -> text(response));
+        int[] path = new int[response.body().length / Integer.BYTES];
+        ByteBuffer.wrap(response.body()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(path);
+        return path;
+    }
+
+    private static String text(HttpResponse<byte[]> response) {
+        return new String(response.body(), StandardCharsets.UTF_8);
+    }
+}